@@ -0,0 +1,125 @@
+package org.grobid.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.apache.commons.io.FileUtils;
+import org.grobid.core.main.GrobidHomeFinder;
+import org.grobid.core.main.LibraryLoader;
+import org.grobid.core.utilities.GrobidConfig.ModelParameters;
+import org.grobid.core.utilities.GrobidNerConfiguration;
+import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.TextUtilities;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringTokenizer;
+
+/**
+ * Fixed benchmark inputs, taken from the raw NER corpus of the project so that the
+ * measures are comparable from one release to another.
+ */
+public class BenchmarkCorpus {
+
+    public static final String RAW_CORPUS_PATH = "resources/dataset/ner/corpus/raw";
+
+    // Reuters newsML sample documents
+    public static final String[] REUTERS_SAMPLE_PATHS = {
+            "src/test/resources/2286newsML.xml",
+            "src/test/resources/100100newsML.xml"
+    };
+
+    /**
+     * Return the paragraphs (one per line) of all the raw corpus files, in file name order.
+     */
+    public static List<String> readParagraphs() throws IOException {
+        File dir = new File(RAW_CORPUS_PATH);
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".txt"));
+        if (files == null)
+            throw new IOException("Raw corpus not found, benchmarks must be run from the project root: " +
+                dir.getAbsolutePath());
+        Arrays.sort(files);
+
+        List<String> paragraphs = new ArrayList<>();
+        for (File file : files) {
+            for (String line : FileUtils.readLines(file, "UTF-8")) {
+                if (line.trim().length() > 0)
+                    paragraphs.add(line);
+            }
+        }
+        return paragraphs;
+    }
+
+    /**
+     * Return the full raw corpus as a single text.
+     */
+    public static String readText() throws IOException {
+        return String.join("\n", readParagraphs());
+    }
+
+    /**
+     * Simple tokenization of a text following the Grobid delimiters, spaces excluded.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringTokenizer st = new StringTokenizer(text, TextUtilities.delimiters, true);
+        while (st.hasMoreTokens()) {
+            String token = st.nextToken();
+            if (token.trim().length() > 0)
+                tokens.add(token);
+        }
+        return tokens;
+    }
+
+    /**
+     * Return the text paragraphs of the Reuters sample documents.
+     */
+    public static List<String> readReutersSample() throws Exception {
+        List<String> paragraphs = new ArrayList<>();
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        for (String path : REUTERS_SAMPLE_PATHS) {
+            Document document = factory.newDocumentBuilder().parse(new File(path));
+            NodeList nodes = document.getElementsByTagName("p");
+            for (int i = 0; i < nodes.getLength(); i++) {
+                String text = nodes.item(i).getTextContent();
+                if (text.trim().length() > 0)
+                    paragraphs.add(text);
+            }
+        }
+        return paragraphs;
+    }
+
+    /**
+     * Initialise grobid-home and the models from the grobid-ner configuration, for the
+     * benchmarks requiring the Grobid resources and the native sequence labelling libraries.
+     */
+    public static GrobidNerConfiguration initGrobid() throws IOException {
+        GrobidNerConfiguration grobidNerConfiguration = initGrobidHome();
+        LibraryLoader.load();
+        return grobidNerConfiguration;
+    }
+
+    /**
+     * Initialise grobid-home and the models from the grobid-ner configuration, without 
+     * loading the native libraries: enough for the lexicons, the tokenizer and the features.
+     */
+    public static GrobidNerConfiguration initGrobidHome() throws IOException {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        GrobidNerConfiguration grobidNerConfiguration =
+            mapper.readValue(new File("resources/config/grobid-ner.yaml"), GrobidNerConfiguration.class);
+
+        final GrobidHomeFinder grobidHomeFinder = new GrobidHomeFinder(
+            Arrays.asList(grobidNerConfiguration.getGrobidHome(), "../../grobid-home", "../grobid-home"));
+        grobidHomeFinder.findGrobidHomeOrFail();
+        GrobidProperties.getInstance(grobidHomeFinder);
+
+        for (ModelParameters theModel : grobidNerConfiguration.getModels())
+            GrobidProperties.getInstance().addModel(theModel);
+        return grobidNerConfiguration;
+    }
+}
@@ -0,0 +1,45 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.lang.Language;
+import org.grobid.core.utilities.LRUCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of the language identification cache by 32 concurrent threads, mostly hits, to 
+ * measure the contention on the lock of LRUCache. To be compared with the cost of a language
+ * identification (LanguageIdentifierBenchmark) on a multi-core machine. Does not require 
+ * grobid-home. As for LanguageIdentifierBenchmark, the number of threads can be changed on 
+ * the command line with -t.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class LanguageIdCacheBenchmark {
+
+    private static final int CACHE_SIZE = 10000;
+    // distinct fingerprints looked up, a bit more than the cache size for some misses
+    private static final int NB_KEYS = 11000;
+
+    @State(Scope.Benchmark)
+    public static class Caches {
+        final LRUCache<Long, Language> cache = new LRUCache<>(CACHE_SIZE);
+        final Language language = new Language(Language.EN, 1.0);
+    }
+
+    private static long nextKey() {
+        // spread the keys as the text fingerprints are
+        return ThreadLocalRandom.current().nextInt(NB_KEYS) * 0x9E3779B97F4A7C15L;
+    }
+
+    @Benchmark
+    public Object cacheLookup(Caches caches) {
+        long key = nextKey();
+        Language lang = caches.cache.get(key);
+        if (lang == null)
+            caches.cache.put(key, caches.language);
+        return lang;
+    }
+}
@@ -0,0 +1,53 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.BenchmarkCorpus;
+import org.grobid.core.utilities.LanguageUtilities;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Language identification of the raw corpus paragraphs by 32 concurrent threads, with the
+ * former global lock on LanguageUtilities and with the LanguageIdentifier stage. Requires
+ * grobid-home (see resources/config/grobid-ner.yaml). The number of threads can be changed
+ * on the command line with -t to get the scaling curve.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class LanguageIdentifierBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Corpus {
+        List<String> paragraphs;
+        LanguageIdentifier languageIdentifier;
+        final AtomicInteger next = new AtomicInteger();
+
+        @Setup
+        public void setUp() throws Exception {
+            BenchmarkCorpus.initGrobid();
+            paragraphs = BenchmarkCorpus.readParagraphs();
+            languageIdentifier = new LanguageIdentifier();
+        }
+
+        String nextParagraph() {
+            return paragraphs.get(Math.floorMod(next.getAndIncrement(), paragraphs.size()));
+        }
+    }
+
+    @Benchmark
+    public Object globalLock(Corpus corpus) {
+        String text = corpus.nextParagraph();
+        LanguageUtilities languageIdentifier = LanguageUtilities.getInstance();
+        synchronized (languageIdentifier) {
+            return languageIdentifier.runLanguageId(text, LanguageIdentifier.DEFAULT_MAX_LENGTH);
+        }
+    }
+
+    @Benchmark
+    public Object languageIdentifier(Corpus corpus) {
+        return corpus.languageIdentifier.identify(corpus.nextParagraph(), null);
+    }
+}
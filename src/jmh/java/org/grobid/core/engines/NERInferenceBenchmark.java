@@ -0,0 +1,109 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.BenchmarkCorpus;
+import org.grobid.core.GrobidModels;
+import org.grobid.core.analyzers.GrobidAnalyzer;
+import org.grobid.core.features.FeaturesVectorNER;
+import org.grobid.core.lang.Language;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.lexicon.Lexicon;
+import org.grobid.core.lexicon.LexiconPositionsIndexes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The stages of the NER inference on the paragraphs of the raw corpus 
+ * (resources/dataset/ner/corpus/raw), one operation being the processing of the whole 
+ * corpus. The Wapiti labelling is replaced by StubLabellingNERParser, so only grobid-home
+ * is required (see resources/config/grobid-ner.yaml), not the native libraries: the 
+ * end-to-end measure gives the cost of everything but the CRF.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class NERInferenceBenchmark {
+
+    private List<String> paragraphs;
+    private List<List<LayoutToken>> tokenizedParagraphs;
+    private List<LexiconPositionsIndexes> positionsIndexes;
+    private List<String> labelledParagraphs;
+
+    private Lexicon lexicon;
+    private StubLabellingNERParser parser;
+    private NERParserCommon nerParserCommon;
+
+    private final StringBuilder builder = new StringBuilder(1 << 16);
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkCorpus.initGrobidHome();
+        lexicon = Lexicon.getInstance();
+        parser = new StubLabellingNERParser();
+        nerParserCommon = parser.getNerParserCommon();
+
+        paragraphs = BenchmarkCorpus.readParagraphs();
+        tokenizedParagraphs = new ArrayList<>();
+        positionsIndexes = new ArrayList<>();
+        labelledParagraphs = new ArrayList<>();
+        for (String paragraph : paragraphs) {
+            List<LayoutToken> tokens = GrobidAnalyzer.getInstance()
+                .tokenizeWithLayoutToken(paragraph, new Language(Language.EN, 1.0));
+            tokenizedParagraphs.add(tokens);
+
+            LexiconPositionsIndexes indexes = new LexiconPositionsIndexes(lexicon);
+            indexes.computeIndexes(tokens);
+            positionsIndexes.add(indexes);
+
+            labelledParagraphs.add(parser.label(NERParserCommon.toFeatureVectorLayout(tokens, indexes)));
+        }
+    }
+
+    @Benchmark
+    public void computeIndexes(Blackhole blackhole) {
+        for (List<LayoutToken> tokens : tokenizedParagraphs) {
+            LexiconPositionsIndexes indexes = new LexiconPositionsIndexes(lexicon);
+            indexes.computeIndexes(tokens);
+            blackhole.consume(indexes);
+        }
+    }
+
+    @Benchmark
+    public void toFeatureVectorLayout(Blackhole blackhole) {
+        for (int i = 0; i < tokenizedParagraphs.size(); i++) {
+            blackhole.consume(NERParserCommon.toFeatureVectorLayout(tokenizedParagraphs.get(i), positionsIndexes.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void addFeaturesNERAndPrintVector(Blackhole blackhole) {
+        for (List<LayoutToken> tokens : tokenizedParagraphs) {
+            builder.setLength(0);
+            for (LayoutToken token : tokens) {
+                if (NERParserCommon.isSeparatorToken(token))
+                    continue;
+                FeaturesVectorNER vector = FeaturesVectorNER.addFeaturesNER(token.getText(), false, false, false, false);
+                vector.printVector(builder);
+            }
+            blackhole.consume(builder.length());
+        }
+    }
+
+    @Benchmark
+    public void resultExtraction(Blackhole blackhole) {
+        for (int i = 0; i < tokenizedParagraphs.size(); i++) {
+            blackhole.consume(nerParserCommon.resultExtraction(GrobidModels.ENTITIES_NER,
+                labelledParagraphs.get(i), tokenizedParagraphs.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void extractNE(Blackhole blackhole) {
+        for (String paragraph : paragraphs) {
+            blackhole.consume(parser.extractNE(paragraph));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.grobid.core.engines;
+
+import com.googlecode.clearnlp.engine.EngineGetter;
+import com.googlecode.clearnlp.segmentation.AbstractSegmenter;
+import com.googlecode.clearnlp.tokenization.AbstractTokenizer;
+import org.grobid.core.BenchmarkCorpus;
+import org.grobid.core.lang.Language;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sentence segmentation of the raw corpus paragraphs, with a ClearNLP segmenter built for 
+ * each paragraph and the text read back from its bytes as formerly, and with a reused 
+ * SentenceSegmenter. Requires the ClearNLP dictionary (see SentenceSegmenter).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class SentenceSegmenterBenchmark {
+
+    List<String> paragraphs;
+    AbstractTokenizer tokenizer;
+    SentenceSegmenter sentenceSegmenter;
+
+    @Setup
+    public void setUp() throws Exception {
+        paragraphs = BenchmarkCorpus.readParagraphs();
+        try (InputStream dictionary = new FileInputStream(SentenceSegmenter.DEFAULT_DICTIONARY_PATH)) {
+            tokenizer = EngineGetter.getTokenizer(Language.EN, dictionary);
+        }
+        sentenceSegmenter = new SentenceSegmenter(Language.EN, tokenizer);
+    }
+
+    @Benchmark
+    public int segmenterPerParagraph() throws Exception {
+        int nb = 0;
+        for (String paragraph : paragraphs) {
+            AbstractSegmenter segmenter = EngineGetter.getSegmenter(Language.EN, tokenizer);
+            InputStream is = new ByteArrayInputStream(paragraph.getBytes(StandardCharsets.UTF_8));
+            BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            nb += segmenter.getSentences(br).size();
+        }
+        return nb;
+    }
+
+    @Benchmark
+    public int reusedSegmenter() {
+        int nb = 0;
+        for (String paragraph : paragraphs) {
+            nb += sentenceSegmenter.segment(paragraph).size();
+        }
+        return nb;
+    }
+}
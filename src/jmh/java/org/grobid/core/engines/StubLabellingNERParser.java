@@ -0,0 +1,86 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.GrobidModels;
+import org.grobid.core.analyzers.GrobidAnalyzer;
+import org.grobid.core.data.Entity;
+import org.grobid.core.lang.Language;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.lexicon.Lexicon;
+import org.grobid.core.lexicon.NERLexicon;
+
+import java.util.List;
+
+/**
+ * English NER parser running the same pipeline as NEREnParser, but with a deterministic 
+ * stub in place of the Wapiti labelling, so that the Java side of the inference can be
+ * measured without the native libraries and the CRF model.
+ *
+ * The stub labels the runs of capitalized tokens as entities: LOCATION or ORGANISATION when
+ * the token is in the corresponding lexicon, PERSON otherwise. Its cost is linear in the 
+ * size of the feature text.
+ */
+public class StubLabellingNERParser implements NERParser {
+
+    // columns of the NER features, see FeaturesVectorNER.printVector()
+    private static final int CAPITALISATION_COLUMN = 12;
+    private static final int LOCATION_COLUMN = 21;
+    private static final int ORGANISATION_COLUMN = 23;
+
+    private final NERParserCommon nerParserCommon = new NERParserCommon();
+    private final Lexicon lexicon = Lexicon.getInstance();
+
+    @Override
+    public List<Entity> extractNE(String text) {
+        List<LayoutToken> tokens = GrobidAnalyzer.getInstance().tokenizeWithLayoutToken(text, new Language(Language.EN, 1.0));
+        return extractNE(tokens);
+    }
+
+    @Override
+    public List<Entity> extractNE(List<LayoutToken> tokens) {
+        if (tokens == null)
+            return null;
+        return nerParserCommon.extractNE(this, GrobidModels.ENTITIES_NER, lexicon, tokens);
+    }
+
+    @Override
+    public String createCONNLTrainingFromText(String text) {
+        return null;
+    }
+
+    @Override
+    public String label(String features) {
+        StringBuilder result = new StringBuilder(features.length() + features.length() / 8);
+        String previousLabel = "O";
+        int lineStart = 0;
+        while (lineStart < features.length()) {
+            int lineEnd = features.indexOf('\n', lineStart);
+            if (lineEnd == -1)
+                lineEnd = features.length();
+            if (lineEnd > lineStart) {
+                String[] columns = features.substring(lineStart, lineEnd).split(" ");
+                String label = "O";
+                if (!columns[CAPITALISATION_COLUMN].equals("NOCAPS")) {
+                    if (columns[LOCATION_COLUMN].equals("1"))
+                        label = "LOCATION";
+                    else if (columns[ORGANISATION_COLUMN].equals("1"))
+                        label = "ORGANISATION";
+                    else
+                        label = "PERSON";
+                }
+                result.append(features, lineStart, lineEnd).append('\t');
+                if (!label.equals("O") && !label.equals(previousLabel))
+                    result.append(NERLexicon.START_ENTITY_LABEL_PREFIX);
+                result.append(label);
+                previousLabel = label;
+            }
+            result.append('\n');
+            lineStart = lineEnd + 1;
+        }
+        return result.toString();
+    }
+
+    @Override
+    public NERParserCommon getNerParserCommon() {
+        return nerParserCommon;
+    }
+}
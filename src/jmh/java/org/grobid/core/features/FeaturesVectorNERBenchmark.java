@@ -0,0 +1,84 @@
+package org.grobid.core.features;
+
+import org.grobid.core.BenchmarkCorpus;
+import org.grobid.core.utilities.TextUtilities;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare FeaturesVectorNER.printVector() with its streaming variant on the tokens of the
+ * raw corpus. The vectors are filled without FeatureFactory (which requires the Grobid
+ * lexicons), the serialization cost does not depend on the actual feature values.
+ *
+ * The setup fails if the two serializations differ for any token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class FeaturesVectorNERBenchmark {
+
+    private FeaturesVectorNER[] vectors;
+
+    private final StringBuilder builder = new StringBuilder(1 << 16);
+
+    @Setup
+    public void setUp() throws Exception {
+        List<String> tokens = BenchmarkCorpus.tokenize(BenchmarkCorpus.readText());
+        // first 10k tokens of the corpus
+        int size = Math.min(tokens.size(), 10000);
+        vectors = new FeaturesVectorNER[size];
+        for (int i = 0; i < size; i++) {
+            vectors[i] = createVector(tokens.get(i), i);
+        }
+
+        for (FeaturesVectorNER vector : vectors) {
+            builder.setLength(0);
+            vector.printVector(builder);
+            if (!builder.toString().equals(vector.printVector())) {
+                throw new IllegalStateException("Streaming serialization differs from printVector() for: " +
+                    vector.string);
+            }
+        }
+    }
+
+    private static FeaturesVectorNER createVector(String token, int i) {
+        FeaturesVectorNER vector = new FeaturesVectorNER();
+        vector.string = token;
+        if (token.equals(token.toUpperCase()) && !token.equals(token.toLowerCase()))
+            vector.capitalisation = "ALLCAPS";
+        else if (Character.isUpperCase(token.charAt(0)))
+            vector.capitalisation = "INITCAP";
+        else
+            vector.capitalisation = "NOCAPS";
+        if (token.chars().allMatch(Character::isDigit))
+            vector.digit = "ALLDIGIT";
+        else if (token.chars().anyMatch(Character::isDigit))
+            vector.digit = "CONTAINDIGIT";
+        else
+            vector.digit = "NODIGIT";
+        vector.commonName = (i % 2) == 0;
+        vector.isLocationToken = (i % 7) == 0;
+        vector.wordShape = TextUtilities.wordShape(token);
+        vector.wordShapeTrimmed = TextUtilities.wordShapeTrimmed(token);
+        return vector;
+    }
+
+    @Benchmark
+    public void printVector(Blackhole blackhole) {
+        for (FeaturesVectorNER vector : vectors) {
+            blackhole.consume(vector.printVector());
+        }
+    }
+
+    @Benchmark
+    public void printVectorStreaming(Blackhole blackhole) {
+        for (FeaturesVectorNER vector : vectors) {
+            builder.setLength(0);
+            vector.printVector(builder);
+            blackhole.consume(builder);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.grobid.core.lexicon;
+
+import org.grobid.core.utilities.OffsetPosition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lexicon membership of all the tokens of a 100k-token sequence for the four NER lexicons,
+ * with the former scan of the position lists (isTokenInLexicon) and with the per-token
+ * lexicon flags of LexiconPositionsIndexes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class LexiconPositionsIndexesBenchmark {
+
+    @Param({"100000"})
+    public int nbTokens;
+
+    private List<OffsetPosition> locationPositions;
+    private List<OffsetPosition> personTitlePositions;
+    private List<OffsetPosition> organisationPositions;
+    private List<OffsetPosition> orgFormPositions;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        locationPositions = randomPositions(random, 12);
+        personTitlePositions = randomPositions(random, 40);
+        organisationPositions = randomPositions(random, 20);
+        orgFormPositions = randomPositions(random, 60);
+    }
+
+    /**
+     * Sorted and non-overlapping matches of 1 to 3 tokens, one every meanGap tokens on average.
+     */
+    private List<OffsetPosition> randomPositions(Random random, int meanGap) {
+        List<OffsetPosition> positions = new ArrayList<>();
+        int position = random.nextInt(meanGap);
+        while (position < nbTokens) {
+            int end = Math.min(position + random.nextInt(3), nbTokens - 1);
+            positions.add(new OffsetPosition(position, end));
+            position = end + 1 + random.nextInt(2 * meanGap);
+        }
+        return positions;
+    }
+
+    @Benchmark
+    public void listScan(Blackhole blackhole) {
+        for (int posit = 0; posit < nbTokens; posit++) {
+            blackhole.consume(LexiconPositionsIndexes.isTokenInLexicon(locationPositions, posit));
+            blackhole.consume(LexiconPositionsIndexes.isTokenInLexicon(personTitlePositions, posit));
+            blackhole.consume(LexiconPositionsIndexes.isTokenInLexicon(organisationPositions, posit));
+            blackhole.consume(LexiconPositionsIndexes.isTokenInLexicon(orgFormPositions, posit));
+        }
+    }
+
+    @Benchmark
+    public void lexiconFlags(Blackhole blackhole) {
+        // includes the computation of the flags from the position lists
+        LexiconPositionsIndexes positionsIndexes = new LexiconPositionsIndexes(null);
+        positionsIndexes.setLocalLocationPositions(locationPositions);
+        positionsIndexes.setLocalPersonTitlePositions(personTitlePositions);
+        positionsIndexes.setLocalOrganisationPositions(organisationPositions);
+        positionsIndexes.setLocalOrgFormPositions(orgFormPositions);
+        for (int posit = 0; posit < nbTokens; posit++) {
+            blackhole.consume(positionsIndexes.getLexiconFlags(posit));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.grobid.core.lexicon;
+
+import org.grobid.core.BenchmarkCorpus;
+import org.grobid.core.analyzers.GrobidAnalyzer;
+import org.grobid.core.lang.Language;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.GrobidNerConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lexicon matching of the paragraphs of the Reuters sample documents, with the four scans
+ * of the grobid Lexicon and with the single-pass MultiLexiconMatcher. One operation is the
+ * matching of the whole sample. Requires grobid-home (see resources/config/grobid-ner.yaml).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class MultiLexiconMatcherBenchmark {
+
+    private List<List<LayoutToken>> paragraphs;
+
+    private Lexicon lexicon;
+    private MultiLexiconMatcher lexiconMatcher;
+
+    @Setup
+    public void setUp() throws Exception {
+        GrobidNerConfiguration configuration = BenchmarkCorpus.initGrobid();
+        lexicon = Lexicon.getInstance();
+        lexiconMatcher = MultiLexiconMatcher.getInstance(configuration.getLexicons());
+
+        paragraphs = new ArrayList<>();
+        for (String paragraph : BenchmarkCorpus.readReutersSample()) {
+            paragraphs.add(GrobidAnalyzer.getInstance()
+                .tokenizeWithLayoutToken(paragraph, new Language(Language.EN, 1.0)));
+        }
+    }
+
+    @Benchmark
+    public void lexiconScans(Blackhole blackhole) {
+        for (List<LayoutToken> tokens : paragraphs) {
+            LexiconPositionsIndexes positionsIndexes = new LexiconPositionsIndexes(lexicon);
+            positionsIndexes.computeIndexes(tokens);
+            blackhole.consume(positionsIndexes.getLexiconFlags(0));
+        }
+    }
+
+    @Benchmark
+    public void combinedMatcher(Blackhole blackhole) {
+        for (List<LayoutToken> tokens : paragraphs) {
+            LexiconPositionsIndexes positionsIndexes = new LexiconPositionsIndexes(lexicon, lexiconMatcher);
+            positionsIndexes.computeIndexes(tokens);
+            blackhole.consume(positionsIndexes.getLexiconFlags(0));
+        }
+    }
+}
@@ -118,9 +118,10 @@ public class Entity implements Comparable<Entity> {
 	}
 	
 	public void setTypeFromString(String theType) {
-		if (theType.toUpperCase().equals("ATHLETIC_TEAM"))
-			theType = "SPORT_TEAM";
-		type = NERLexicon.NER_Type.valueOf(theType.toUpperCase());
+		NERLexicon.NER_Type theNerType = NERLexicon.NER_Type.fromLabel(theType);
+		if (theNerType == null)
+			throw new IllegalArgumentException("No NER type for the label " + theType);
+		type = theNerType;
 	}
 	
 	public List<String> getSubTypes() {
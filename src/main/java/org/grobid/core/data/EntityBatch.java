@@ -0,0 +1,266 @@
+package org.grobid.core.data;
+
+import org.grobid.core.lexicon.NERLexicon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Columnar representation of the entities extracted from a text, for bulk processing where
+ * keeping one Entity object per entity is too costly. Each entity is a row of primitive
+ * columns (offsets, NER_Type ordinal, confidence) and the raw names are stored one after
+ * the other in a single string.
+ *
+ * A batch is immutable once built. It can be iterated with a flyweight View, the same view
+ * instance being moved from one row to the next, or converted back to Entity objects when
+ * needed.
+ */
+public class EntityBatch implements Iterable<EntityBatch.View> {
+
+    public static final EntityBatch EMPTY = new Builder(0).build();
+
+    private static final NERLexicon.NER_Type[] TYPES = NERLexicon.NER_Type.values();
+
+    private final int size;
+    private final int[] offsetStarts;
+    private final int[] offsetEnds;
+    private final byte[] types;
+    private final float[] confs;
+    // the raw name of row i is names[nameBounds[i], nameBounds[i + 1]]
+    private final String names;
+    private final int[] nameBounds;
+
+    private EntityBatch(Builder builder) {
+        size = builder.size;
+        offsetStarts = Arrays.copyOf(builder.offsetStarts, size);
+        offsetEnds = Arrays.copyOf(builder.offsetEnds, size);
+        types = Arrays.copyOf(builder.types, size);
+        confs = Arrays.copyOf(builder.confs, size);
+        names = builder.names.toString();
+        nameBounds = Arrays.copyOf(builder.nameBounds, size + 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getOffsetStart(int index) {
+        return offsetStarts[checkIndex(index)];
+    }
+
+    public int getOffsetEnd(int index) {
+        return offsetEnds[checkIndex(index)];
+    }
+
+    public NERLexicon.NER_Type getType(int index) {
+        return TYPES[types[checkIndex(index)]];
+    }
+
+    public float getConf(int index) {
+        return confs[checkIndex(index)];
+    }
+
+    public String getRawName(int index) {
+        checkIndex(index);
+        return names.substring(nameBounds[index], nameBounds[index + 1]);
+    }
+
+    /**
+     * Append the raw name of a row to a StringBuilder, without creating a new string.
+     */
+    public StringBuilder appendRawName(int index, StringBuilder sb) {
+        checkIndex(index);
+        return sb.append(names, nameBounds[index], nameBounds[index + 1]);
+    }
+
+    private int checkIndex(int index) {
+        if ((index < 0) || (index >= size))
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        return index;
+    }
+
+    /**
+     * Entity object of a row, with the raw name, type, offsets and confidence.
+     */
+    public Entity toEntity(int index) {
+        Entity entity = new Entity(getRawName(index));
+        entity.setType(getType(index));
+        entity.setOffsetStart(offsetStarts[index]);
+        entity.setOffsetEnd(offsetEnds[index]);
+        // through the decimal representation, so that e.g. 0.8f gives back 0.8
+        entity.setConf(Double.parseDouble(Float.toString(confs[index])));
+        return entity;
+    }
+
+    public List<Entity> toEntities() {
+        List<Entity> entities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entities.add(toEntity(i));
+        }
+        return entities;
+    }
+
+    /**
+     * Columnar copy of a list of entities.
+     */
+    public static EntityBatch of(List<Entity> entities) {
+        if (entities == null)
+            return EMPTY;
+        Builder builder = new Builder(entities.size());
+        for (Entity entity : entities) {
+            builder.add(entity.getType(), entity.getOffsetStart(), entity.getOffsetEnd(),
+                (float) entity.getConf(), entity.getRawName());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Iteration over the rows with a single flyweight view: the view returned by next() is
+     * only valid until the following call.
+     */
+    @Override
+    public Iterator<View> iterator() {
+        View view = new View(this);
+        return new Iterator<View>() {
+            @Override
+            public boolean hasNext() {
+                return view.index + 1 < size;
+            }
+
+            @Override
+            public View next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                view.index++;
+                return view;
+            }
+        };
+    }
+
+    /**
+     * Flyweight view of a row of a batch.
+     */
+    public static class View {
+        private final EntityBatch batch;
+        private int index = -1;
+
+        private View(EntityBatch batch) {
+            this.batch = batch;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getOffsetStart() {
+            return batch.offsetStarts[index];
+        }
+
+        public int getOffsetEnd() {
+            return batch.offsetEnds[index];
+        }
+
+        public NERLexicon.NER_Type getType() {
+            return TYPES[batch.types[index]];
+        }
+
+        public float getConf() {
+            return batch.confs[index];
+        }
+
+        public String getRawName() {
+            return batch.getRawName(index);
+        }
+
+        public StringBuilder appendRawName(StringBuilder sb) {
+            return batch.appendRawName(index, sb);
+        }
+
+        public Entity toEntity() {
+            return batch.toEntity(index);
+        }
+    }
+
+    /**
+     * Row by row construction of a batch, not thread-safe.
+     */
+    public static class Builder {
+        private int size = 0;
+        private int[] offsetStarts;
+        private int[] offsetEnds;
+        private byte[] types;
+        private float[] confs;
+        private final StringBuilder names = new StringBuilder();
+        private int[] nameBounds;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int capacity) {
+            capacity = Math.max(capacity, 1);
+            offsetStarts = new int[capacity];
+            offsetEnds = new int[capacity];
+            types = new byte[capacity];
+            confs = new float[capacity];
+            nameBounds = new int[capacity + 1];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Builder add(NERLexicon.NER_Type type, int offsetStart, int offsetEnd, float conf, CharSequence rawName) {
+            ensureCapacity(size + 1);
+            offsetStarts[size] = offsetStart;
+            offsetEnds[size] = offsetEnd;
+            types[size] = (byte) ((type == null) ? NERLexicon.NER_Type.UNKNOWN : type).ordinal();
+            confs[size] = conf;
+            if (rawName != null)
+                names.append(rawName);
+            size++;
+            nameBounds[size] = names.length();
+            return this;
+        }
+
+        /**
+         * Append all the rows of a batch.
+         */
+        public Builder addAll(EntityBatch batch) {
+            ensureCapacity(size + batch.size);
+            System.arraycopy(batch.offsetStarts, 0, offsetStarts, size, batch.size);
+            System.arraycopy(batch.offsetEnds, 0, offsetEnds, size, batch.size);
+            System.arraycopy(batch.types, 0, types, size, batch.size);
+            System.arraycopy(batch.confs, 0, confs, size, batch.size);
+            int shift = names.length();
+            names.append(batch.names);
+            for (int i = 1; i <= batch.size; i++) {
+                nameBounds[size + i] = batch.nameBounds[i] + shift;
+            }
+            size += batch.size;
+            return this;
+        }
+
+        private void ensureCapacity(int rows) {
+            if (rows > offsetStarts.length) {
+                int capacity = Math.max(rows, offsetStarts.length * 2);
+                offsetStarts = Arrays.copyOf(offsetStarts, capacity);
+                offsetEnds = Arrays.copyOf(offsetEnds, capacity);
+                types = Arrays.copyOf(types, capacity);
+                confs = Arrays.copyOf(confs, capacity);
+                nameBounds = Arrays.copyOf(nameBounds, capacity + 1);
+            }
+        }
+
+        public EntityBatch build() {
+            return new EntityBatch(this);
+        }
+    }
+}
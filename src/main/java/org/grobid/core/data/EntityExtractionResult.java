@@ -0,0 +1,42 @@
+package org.grobid.core.data;
+
+import java.util.List;
+
+/**
+ * Outcome of the named entity extraction for one text of a batch: either the list of
+ * recognized entities, or the error which made the extraction of this text fail.
+ */
+public class EntityExtractionResult {
+
+    // position of the text in the batch
+    private final int index;
+
+    private final List<Entity> entities;
+
+    private final Throwable error;
+
+    public EntityExtractionResult(int index, List<Entity> entities, Throwable error) {
+        this.index = index;
+        this.entities = entities;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Recognized entities, null if the extraction failed or if the text was empty.
+     */
+    public List<Entity> getEntities() {
+        return entities;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
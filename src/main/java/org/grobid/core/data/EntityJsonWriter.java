@@ -0,0 +1,155 @@
+package org.grobid.core.data;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.grobid.core.layout.BoundingBox;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Streaming serialization of entity lists with a Jackson JsonGenerator, written directly
+ * to an OutputStream without intermediate strings. The fields are the same as the ones
+ * of Entity.toJson(), with proper escaping of the strings.
+ *
+ * Beside JSON, the binary Smile and CBOR formats give a more compact encoding of the same
+ * structure, to be read with the corresponding Jackson factory.
+ *
+ * The writers are immutable and can be shared by several threads.
+ */
+public class EntityJsonWriter {
+
+    public enum Format {
+        JSON,
+        SMILE,
+        CBOR
+    }
+
+    public static final EntityJsonWriter JSON = new EntityJsonWriter(Format.JSON);
+    public static final EntityJsonWriter SMILE = new EntityJsonWriter(Format.SMILE);
+    public static final EntityJsonWriter CBOR = new EntityJsonWriter(Format.CBOR);
+
+    private final Format format;
+    private final JsonFactory factory;
+
+    private EntityJsonWriter(Format format) {
+        this.format = format;
+        switch (format) {
+            case SMILE:
+                factory = new SmileFactory();
+                break;
+            case CBOR:
+                factory = new CBORFactory();
+                break;
+            default:
+                factory = new JsonFactory();
+        }
+        // the output stream remains owned by the caller
+        factory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public static EntityJsonWriter forFormat(Format format) {
+        switch (format) {
+            case SMILE:
+                return SMILE;
+            case CBOR:
+                return CBOR;
+            default:
+                return JSON;
+        }
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Jackson factory of the format, e.g. for reading back the serialized entities.
+     */
+    public JsonFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     * Write a list of entities as an array. The output stream is flushed but not closed.
+     */
+    public void write(List<Entity> entities, OutputStream out) throws IOException {
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            writeEntities(entities, generator);
+        }
+    }
+
+    /**
+     * Write a list of entities as an array with a generator created by the caller, for
+     * instance as a field of a larger response.
+     */
+    public static void writeEntities(List<Entity> entities, JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        if (entities != null) {
+            for (Entity entity : entities) {
+                writeEntity(entity, generator);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    public static void writeEntity(Entity entity, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("rawName", entity.getRawName());
+        if (entity.getNormalisedName() != null)
+            generator.writeStringField("normalisedName", entity.getNormalisedName());
+        if (entity.getType() != null)
+            generator.writeStringField("type", entity.getType().getName());
+
+        List<String> subTypes = entity.getSubTypes();
+        if (subTypes != null) {
+            generator.writeArrayFieldStart("subtype");
+            for (String subType : subTypes) {
+                generator.writeString(subType);
+            }
+            generator.writeEndArray();
+        }
+
+        if ((entity.getOffsetStart() != -1) && (entity.getOffsetEnd() != -1)) {
+            generator.writeNumberField("offsetStart", entity.getOffsetStart());
+            generator.writeNumberField("offsetEnd", entity.getOffsetEnd());
+        }
+
+        List<BoundingBox> boundingBoxes = entity.getBoundingBoxes();
+        if ((boundingBoxes != null) && (boundingBoxes.size() > 0)) {
+            generator.writeArrayFieldStart("pos");
+            for (BoundingBox box : boundingBoxes) {
+                generator.writeStartObject();
+                generator.writeNumberField("p", box.getPage());
+                generator.writeNumberField("x", box.getX());
+                generator.writeNumberField("y", box.getY());
+                generator.writeNumberField("w", box.getWidth());
+                generator.writeNumberField("h", box.getHeight());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+
+        // conf and prob are strings in Entity.toJson(), kept as is for the existing clients
+        generator.writeStringField("conf", String.valueOf(entity.getConf()));
+        generator.writeStringField("prob", String.valueOf(entity.getProb()));
+
+        Sense sense = entity.getSense();
+        if (sense != null) {
+            generator.writeObjectFieldStart("sense");
+            if (sense.getFineSense() != null) {
+                generator.writeStringField("fineSense", sense.getFineSense());
+                generator.writeStringField("conf", String.valueOf(sense.getFineSenseConfidence()));
+            }
+            if ((sense.getCoarseSense() != null) && 
+                ((sense.getFineSense() == null) || !sense.getCoarseSense().equals(sense.getFineSense()))) {
+                generator.writeStringField("coarseSense", sense.getCoarseSense());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+}
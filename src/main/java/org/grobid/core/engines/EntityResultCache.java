@@ -0,0 +1,225 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.data.Entity;
+import org.grobid.core.data.EntityBatch;
+import org.grobid.core.utilities.LRUCache;
+import org.grobid.core.utilities.TextFingerprint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the named entities extracted from texts, to avoid labelling again repeated
+ * paragraphs. The key is the language, the version of the model of this language (the path
+ * and modification time of the model file) and the text itself: the fingerprint of the text
+ * only gives the hash, so two texts with the same fingerprint never share a result.
+ *
+ * The entities are stored in a compact columnar form (an EntityBatch for the raw names,
+ * types and offsets, plus columns for the other scalar fields) and new Entity objects are
+ * rebuilt at each hit, so the cached results cannot be modified by the callers. Only plain
+ * text results are cached: the entities have no layout tokens, no bounding boxes and no
+ * sense. The cache is bounded by the estimated memory of the stored entries, the least
+ * recently used results being evicted first.
+ *
+ * When the model of a language is loaded, setModelVersion(lang, version) is called with the
+ * version of the loaded model: if the model file has changed, the previous results of the
+ * language are not reachable anymore and are progressively evicted.
+ */
+public class EntityResultCache {
+
+    private static final class Key {
+        final String lang;
+        final String modelVersion;
+        final String text;
+        final long fingerprint;
+
+        Key(String lang, String modelVersion, String text) {
+            this.lang = lang;
+            this.modelVersion = modelVersion;
+            this.text = text;
+            this.fingerprint = TextFingerprint.of(text);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key))
+                return false;
+            Key key = (Key) object;
+            return (fingerprint == key.fingerprint) && lang.equals(key.lang) &&
+                Objects.equals(modelVersion, key.modelVersion) && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (fingerprint ^ (fingerprint >>> 32));
+        }
+    }
+
+    private static final class CachedEntities {
+        // raw names, types and offsets
+        final EntityBatch batch;
+        // exact values, the confidence of the batch being a float
+        final double[] probs;
+        final double[] confs;
+        // fields rarely set, null if set on no entity
+        final String[] normalisedNames;
+        final String[][] subTypes;
+        final Entity.Origin[] origins;
+        final boolean[] acronyms;
+        final long weight;
+
+        CachedEntities(Key key, List<Entity> entities) {
+            int size = entities.size();
+            batch = EntityBatch.of(entities);
+            probs = new double[size];
+            confs = new double[size];
+            String[] normalisedNames = null;
+            String[][] subTypes = null;
+            Entity.Origin[] origins = null;
+            boolean[] acronyms = null;
+            long weight = 200 + key.text.length() * 2L + size * 40L + batch.size() * 17L;
+            for (int i = 0; i < size; i++) {
+                Entity entity = entities.get(i);
+                probs[i] = entity.getProb();
+                confs[i] = entity.getConf();
+                if (entity.getRawName() != null)
+                    weight += entity.getRawName().length() * 2L;
+                if (entity.getNormalisedName() != null) {
+                    if (normalisedNames == null)
+                        normalisedNames = new String[size];
+                    normalisedNames[i] = entity.getNormalisedName();
+                    weight += 48 + entity.getNormalisedName().length() * 2L;
+                }
+                if ((entity.getSubTypes() != null) && !entity.getSubTypes().isEmpty()) {
+                    if (subTypes == null)
+                        subTypes = new String[size][];
+                    subTypes[i] = entity.getSubTypes().toArray(new String[0]);
+                    for (String subType : subTypes[i]) {
+                        weight += 56 + subType.length() * 2L;
+                    }
+                }
+                if (entity.getOrigin() != Entity.Origin.GROBID) {
+                    if (origins == null)
+                        origins = new Entity.Origin[size];
+                    origins[i] = entity.getOrigin();
+                }
+                if (entity.getIsAcronym()) {
+                    if (acronyms == null)
+                        acronyms = new boolean[size];
+                    acronyms[i] = true;
+                }
+            }
+            this.normalisedNames = normalisedNames;
+            this.subTypes = subTypes;
+            this.origins = origins;
+            this.acronyms = acronyms;
+            if (subTypes != null)
+                weight += size * 8L;
+            this.weight = weight;
+        }
+
+        List<Entity> toEntities() {
+            List<Entity> entities = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Entity entity = batch.toEntity(i);
+                entity.setProb(probs[i]);
+                entity.setConf(confs[i]);
+                if (normalisedNames != null)
+                    entity.setNormalisedName(normalisedNames[i]);
+                if ((subTypes != null) && (subTypes[i] != null))
+                    entity.setSubTypes(new ArrayList<>(Arrays.asList(subTypes[i])));
+                if ((origins != null) && (origins[i] != null))
+                    entity.setOrigin(origins[i]);
+                if (acronyms != null)
+                    entity.setIsAcronym(acronyms[i]);
+                entities.add(entity);
+            }
+            return entities;
+        }
+    }
+
+    private final LRUCache<Key, CachedEntities> cache;
+
+    // version of the current model by language
+    private final Map<String, String> modelVersions = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxMemory maximum estimated memory of the cached results, in bytes
+     */
+    public EntityResultCache(long maxMemory) {
+        cache = new LRUCache<>(maxMemory, cachedEntities -> cachedEntities.weight);
+    }
+
+    private Key key(String lang, String text) {
+        return new Key(lang, modelVersions.get(lang), text);
+    }
+
+    /**
+     * Return the entities previously extracted from the text in the given language, null
+     * if the result is not in the cache.
+     */
+    public List<Entity> get(String lang, String text) {
+        CachedEntities cached = cache.get(key(lang, text));
+        return (cached == null) ? null : cached.toEntities();
+    }
+
+    public void put(String lang, String text, List<Entity> entities) {
+        if (entities == null)
+            return;
+        Key key = key(lang, text);
+        cache.put(key, new CachedEntities(key, entities));
+    }
+
+    /**
+     * Set the version of the model of a language, to be called when the model is (re)loaded.
+     * Return true if the version has changed, the previous results of the language being
+     * then invalidated.
+     */
+    public boolean setModelVersion(String lang, String modelVersion) {
+        String previous = modelVersions.put(lang, modelVersion);
+        return (previous != null) && !previous.equals(modelVersion);
+    }
+
+    public String getModelVersion(String lang) {
+        return modelVersions.get(lang);
+    }
+
+    /**
+     * Remove all the cached results.
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    public double getHitRatio() {
+        return cache.getHitRatio();
+    }
+
+    /**
+     * Estimated memory of the cached results, in bytes.
+     */
+    public long getMemory() {
+        return cache.getWeight();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public String toString() {
+        return cache.toString();
+    }
+}
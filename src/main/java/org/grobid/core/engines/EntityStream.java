@@ -0,0 +1,207 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.data.Entity;
+import org.grobid.core.lang.Language;
+import org.grobid.core.lexicon.NERLexicon;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Named entities of an arbitrarily long text read from a Reader, with bounded memory.
+ *
+ * The text is labelled by windows of at most windowSize characters, cut on whitespace.
+ * Consecutive windows overlap: a window starts overlap characters before the position up 
+ * to which the text has been committed, so that this left context is available to the
+ * labelling. In a window, only the entities ending before the last overlap characters (the
+ * commit limit) are emitted; an entity crossing the commit limit is left to the next 
+ * window, which then includes it entirely. This way no entity is cut by a window boundary,
+ * except if it is longer than about windowSize / 2 - 2 * overlap characters.
+ *
+ * The entities of the left context are compared with the spans (offsets and type) already
+ * emitted: the same span is not emitted twice, and a span overlapping or preceding the last
+ * emitted one, labelled differently with less context, is ignored. An entity of the next 
+ * window can then start before the commit limit of the previous window, e.g. when its start
+ * depends on words which were beyond the previous window.
+ *
+ * The entities are produced lazily, window by window. Their offsets are relative to the 
+ * whole stream. The windows are labelled as plain text (NERExtractionOptions.TEXT), so the 
+ * entities have no layout tokens and the windows, never repeated, bypass the entity cache.
+ * The language is identified on the first window when not given. The iterator throws an
+ * UncheckedIOException if the reader fails. The reader is not closed.
+ */
+public class EntityStream implements Iterator<Entity> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EntityStream.class);
+
+    private static final int READ_SIZE = 8192;
+
+    /**
+     * Offsets in the stream and type of an emitted entity.
+     */
+    private static final class Span {
+        final int start;
+        final int end;
+        final NERLexicon.NER_Type type;
+
+        Span(int start, int end, NERLexicon.NER_Type type) {
+            this.start = start;
+            this.end = end;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Span))
+                return false;
+            Span span = (Span) object;
+            return (start == span.start) && (end == span.end) && (type == span.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(start, end, type);
+        }
+    }
+
+    private final NERParsers parsers;
+    private final Reader reader;
+    private Language lang;
+    private final int windowSize;
+    private final int overlap;
+
+    // text not yet labelled, plus the left context of the next window
+    private final StringBuilder buffer;
+    private final char[] chunk = new char[READ_SIZE];
+    // offset in the stream of the first character of the buffer
+    private int bufferStart = 0;
+    // offset in the stream up to which the text has been committed
+    private int committedUpTo = 0;
+    // spans emitted within the buffer, which can be labelled again in the left context
+    private final Set<Span> emittedSpans = new HashSet<>();
+    // offset in the stream of the end of the last emitted entity
+    private int lastEmittedEnd = 0;
+    private boolean endOfStream = false;
+    private boolean finished = false;
+
+    private final Queue<Entity> pending = new ArrayDeque<>();
+
+    public EntityStream(NERParsers parsers, Reader reader, Language lang, int windowSize, int overlap) {
+        if ((overlap <= 0) || (windowSize <= 8 * overlap))
+            throw new IllegalArgumentException("The overlap (" + overlap + 
+                ") must be positive and less than one eighth of the window size (" + windowSize + ")");
+        this.parsers = parsers;
+        this.reader = reader;
+        this.lang = lang;
+        this.windowSize = windowSize;
+        this.overlap = overlap;
+        this.buffer = new StringBuilder(windowSize + READ_SIZE);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (pending.isEmpty() && !finished) {
+            try {
+                labelNextWindow();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading the text stream", e);
+            }
+        }
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public Entity next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        return pending.poll();
+    }
+
+    private void labelNextWindow() throws IOException {
+        while (!endOfStream && (buffer.length() < windowSize)) {
+            int nb = reader.read(chunk, 0, Math.min(READ_SIZE, windowSize - buffer.length()));
+            if (nb < 0)
+                endOfStream = true;
+            else
+                buffer.append(chunk, 0, nb);
+        }
+
+        // the boundaries are moved back to a whitespace, within a limited distance 
+        int windowEnd = endOfStream ? buffer.length() : 
+            whitespaceBoundary(buffer.length(), buffer.length() / 2);
+        int commitLimit = endOfStream ? windowEnd : 
+            whitespaceBoundary(windowEnd - overlap, windowEnd - 2 * overlap);
+        // first position not committed by this window
+        int nextEmitted = commitLimit;
+
+        String text = buffer.substring(0, windowEnd);
+        if (text.trim().length() > 0) {
+            if (lang == null)
+                lang = parsers.getLanguageIdentifier().identify(text, null);
+            List<Entity> entities = parsers.extractNE(text, lang, NERExtractionOptions.TEXT);
+            if (entities != null) {
+                for (Entity entity : entities) {
+                    int start = entity.getOffsetStart();
+                    int end = entity.getOffsetEnd();
+                    Span span = new Span(bufferStart + start, bufferStart + end, entity.getType());
+                    if (emittedSpans.contains(span) || (span.start < lastEmittedEnd)) {
+                        // left context, already emitted with the previous window
+                        continue;
+                    }
+                    if (end <= commitLimit) {
+                        entity.setOffsetStart(span.start);
+                        entity.setOffsetEnd(span.end);
+                        pending.add(entity);
+                        emittedSpans.add(span);
+                        lastEmittedEnd = span.end;
+                    } else {
+                        nextEmitted = Math.min(nextEmitted, start);
+                    }
+                }
+            }
+        }
+
+        if (endOfStream) {
+            finished = true;
+            buffer.setLength(0);
+            return;
+        }
+
+        if (bufferStart + nextEmitted <= committedUpTo) {
+            // an entity longer than the committed part of the window, it has to be cut
+            LOGGER.warn("Entity longer than the streaming window at offset " + (bufferStart + nextEmitted) +
+                ", it is cut at the window boundary");
+            nextEmitted = commitLimit;
+        }
+        committedUpTo = bufferStart + nextEmitted;
+
+        // keep the left context of the next window
+        int keepFrom = whitespaceBoundary(Math.max(nextEmitted - overlap, 0), nextEmitted - 2 * overlap);
+        buffer.delete(0, keepFrom);
+        bufferStart += keepFrom;
+        emittedSpans.removeIf(span -> span.end <= bufferStart);
+    }
+
+    /**
+     * Closest position at or before the given one following a whitespace character, not 
+     * before the given minimum, the position itself if there is none.
+     */
+    private int whitespaceBoundary(int position, int min) {
+        for (int i = position; i > Math.max(min, 0); i--) {
+            if (Character.isWhitespace(buffer.charAt(i - 1)))
+                return i;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,103 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.lang.Language;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.LRUCache;
+import org.grobid.core.utilities.LanguageUtilities;
+import org.grobid.core.utilities.TextFingerprint;
+
+import java.util.List;
+
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Language identification stage of the NER processing.
+ *
+ * The Grobid language detectors create a new detector state at each call, so the
+ * identification can run concurrently and no lock is taken here. When a language is
+ * given with the text (a hint), it is used as it is and the identification is skipped.
+ * Only the beginning of the text (maxLength characters) is used for the identification.
+ *
+ * Optionally, the identified languages are cached with the fingerprint of the beginning of
+ * the text as key, so that repeated texts (boilerplate, disclaimers, etc.) are identified
+ * only once.
+ */
+public class LanguageIdentifier {
+
+    public static final int DEFAULT_MAX_LENGTH = 2000;
+
+    private final int maxLength;
+
+    // identified languages by text fingerprint, null if there is no cache
+    private final LRUCache<Long, Language> cache;
+
+    public LanguageIdentifier() {
+        this(DEFAULT_MAX_LENGTH, 0);
+    }
+
+    /**
+     * @param maxLength maximum number of characters used for the identification
+     * @param cacheSize maximum number of cached languages, 0 for no cache
+     */
+    public LanguageIdentifier(int maxLength, int cacheSize) {
+        this.maxLength = maxLength;
+        this.cache = (cacheSize > 0) ? new LRUCache<>(cacheSize) : null;
+    }
+
+    /**
+     * Return the language hint if it is defined, otherwise the identified language of the 
+     * text, null if the text is empty or if no language could be identified.
+     */
+    public Language identify(String text, Language hint) {
+        if ((hint != null) && !isEmpty(hint.getLang()))
+            return hint;
+        if (isEmpty(text))
+            return null;
+        if (cache == null)
+            return runLanguageId(text);
+
+        Long key = TextFingerprint.of(text, maxLength);
+        Language lang = cache.get(key);
+        if (lang == null) {
+            lang = runLanguageId(text);
+            if (lang != null)
+                cache.put(key, lang);
+        }
+        return lang;
+    }
+
+    /**
+     * Same as identify(String, Language) for a list of LayoutToken, only the tokens needed
+     * for the identification are concatenated.
+     */
+    public Language identify(List<LayoutToken> tokens, Language hint) {
+        if ((hint != null) && !isEmpty(hint.getLang()))
+            return hint;
+        if ((tokens == null) || (tokens.size() == 0))
+            return null;
+
+        StringBuilder sb = new StringBuilder(Math.min(maxLength, tokens.size() * 8) + 16);
+        for (LayoutToken token : tokens) {
+            if (sb.length() >= maxLength)
+                break;
+            if (token.getText() != null)
+                sb.append(token.getText());
+        }
+        return identify(sb.toString(), null);
+    }
+
+    protected Language runLanguageId(String text) {
+        return LanguageUtilities.getInstance().runLanguageId(text, maxLength);
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Cache of the identified languages (for the hit/miss counters), null if not enabled.
+     */
+    public LRUCache<Long, Language> getCache() {
+        return cache;
+    }
+}
@@ -4,7 +4,9 @@ import org.grobid.core.GrobidModel;
 import org.grobid.core.GrobidModels;
 import org.grobid.core.analyzers.GrobidAnalyzer;
 import org.grobid.core.data.Entity;
+import org.grobid.core.data.EntityBatch;
 import org.grobid.core.data.Sense;
+import org.grobid.core.engines.metrics.NERMetrics;
 import org.grobid.core.engines.tagging.GenericTaggerUtils;
 import org.grobid.core.lang.Language;
 import org.grobid.core.lexicon.Lexicon;
@@ -32,6 +34,7 @@ public class NEREnParser extends AbstractParser implements NERParser {
 
     private static Logger LOGGER = LoggerFactory.getLogger(NEREnParser.class);
     private final NERParserCommon nerParserCommon;
+    private final String modelVersion;
 
     protected Lexicon lexicon = Lexicon.getInstance();
     //protected SenseTagger senseTagger = null;
@@ -40,6 +43,7 @@ public class NEREnParser extends AbstractParser implements NERParser {
     public NEREnParser(GrobidModel model) {
         super(model);
         nerParserCommon = new NERParserCommon();
+        modelVersion = NERParserCommon.getModelVersion(model);
         //senseTagger = new SenseTagger();
     }
 
@@ -51,17 +55,51 @@ public class NEREnParser extends AbstractParser implements NERParser {
      * Extract all occurrences of named entities from a simple piece of text. 
      * The positions of the recognized entities are given as character offsets 
      * (following Java specification of characters).
+     * The entities have their bounding boxes and LayoutToken, see 
+     * extractNE(String, NERExtractionOptions) with NERExtractionOptions.TEXT to leave them out.
      */
     public List<Entity> extractNE(String text) {
+        return extractNE(tokenize(text), NERExtractionOptions.LAYOUT);
+    }
+
+    /**
+     * Extract all occurrences of named entities from a simple piece of text, the options 
+     * indicating in particular whether the senses of the entities are tagged.
+     */
+    @Override
+    public List<Entity> extractNE(String text, NERExtractionOptions options) {
+        return extractNE(tokenize(text), options);
+    }
+
+    /**
+     * Extract all occurrences of named entities from a simple piece of text as a columnar
+     * batch, without creating the Entity objects.
+     */
+    @Override
+    public EntityBatch extractNEBatch(String text) {
+        List<LayoutToken> tokens = tokenize(text);
+        if (tokens == null)
+            return EntityBatch.EMPTY;
+        return nerParserCommon.extractNEBatch(this, GrobidModels.ENTITIES_NER, lexicon, tokens);
+    }
+
+    private List<LayoutToken> tokenize(String text) {
+        NERMetrics metrics = nerParserCommon.getMetrics();
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+
         List<LayoutToken> tokens = null;
         try {
             tokens = GrobidAnalyzer.getInstance().tokenizeWithLayoutToken(text, new Language(Language.EN, 1.0));
         } catch(Exception e) {
             LOGGER.error("Tokenization failed. ", e);
         }
-        
-        return extractNE(tokens);
 
+        if (metrics.isEnabled()) {
+            metrics.recordStage(GrobidModels.ENTITIES_NER.getModelName(), NERMetrics.Stage.TOKENIZATION, 
+                System.nanoTime() - start);
+        }
+
+        return tokens;
     }
 
     /**
@@ -71,25 +109,30 @@ public class NEREnParser extends AbstractParser implements NERParser {
      * the input document.
      */
     public List<Entity> extractNE(List<LayoutToken> tokens) {
+        return extractNE(tokens, NERExtractionOptions.LAYOUT);
+    }
+
+    /**
+     * Extract all occurrences of named entities from a list of LayoutToken, with or 
+     * without the bounding boxes and the LayoutToken of the entities.
+     */
+    @Override
+    public List<Entity> extractNE(List<LayoutToken> tokens, NERExtractionOptions options) {
         if (tokens == null)
             return null;
-        
-        LexiconPositionsIndexes positionsIndexes = new LexiconPositionsIndexes(lexicon);
-        positionsIndexes.computeIndexes(tokens);
-
-        String res = NERParserCommon.toFeatureVectorLayout(tokens, positionsIndexes);
-        String result = label(res);
-        //List<Pair<String, String>> labeled = GenericTaggerUtils.getTokensAndLabels(result);
 
-        //String text = LayoutTokensUtil.toText(tokens);
-        List<Entity> entities = nerParserCommon.resultExtraction(GrobidModels.ENTITIES_NER, result, tokens);
-
-        // we use now the sense tagger for the recognized named entity
-        //List<Sense> senses = senseTagger.extractSenses(labeled, tokens, positionsIndexes);
+        // the senses of the recognized named entities are tagged if requested by the options
+        return nerParserCommon.extractNE(this, GrobidModels.ENTITIES_NER, lexicon, tokens, options);
+    }
 
-        //NERParserCommon.merge(entities, senses);
+    @Override
+    public NERParserCommon getNerParserCommon() {
+        return nerParserCommon;
+    }
 
-        return entities;
+    @Override
+    public String getModelVersion() {
+        return modelVersion;
     }
 
     public String createCONNLTrainingFromText(String text) {
@@ -0,0 +1,69 @@
+package org.grobid.core.engines;
+
+/**
+ * What is materialised in the extracted entities beside their text, type and offsets.
+ * The bounding boxes are only meaningful for tokens coming from a document with layout
+ * (e.g. PDF), and keeping the LayoutToken of the entities retains the token list of the
+ * whole document, so both can be left out for plain text processing. Both are kept by
+ * default, the lighter output being only given when requested with options.
+ *
+ * The senses of the entities are optional, as they require a second labelling pass with 
+ * the sense model. This pass can be bounded by a time budget per extraction, the entities
+ * not reached within the budget being left without sense.
+ */
+public class NERExtractionOptions {
+
+    /**
+     * Bounding boxes and LayoutToken of the entities, the default.
+     */
+    public static final NERExtractionOptions LAYOUT = new NERExtractionOptions(true, true);
+
+    /**
+     * Neither bounding boxes nor LayoutToken, for plain text processing when only the text,
+     * type and offsets of the entities are used.
+     */
+    public static final NERExtractionOptions TEXT = new NERExtractionOptions(false, false);
+
+    private final boolean boundingBoxes;
+    private final boolean layoutTokens;
+    private final boolean senses;
+    // 0 for no time limit
+    private final long senseBudgetMillis;
+
+    public NERExtractionOptions(boolean boundingBoxes, boolean layoutTokens) {
+        this(boundingBoxes, layoutTokens, false, 0);
+    }
+
+    public NERExtractionOptions(boolean boundingBoxes, boolean layoutTokens, boolean senses, long senseBudgetMillis) {
+        if (senseBudgetMillis < 0)
+            throw new IllegalArgumentException("The sense budget must be positive or 0: " + senseBudgetMillis);
+        this.boundingBoxes = boundingBoxes;
+        this.layoutTokens = layoutTokens;
+        this.senses = senses;
+        this.senseBudgetMillis = senseBudgetMillis;
+    }
+
+    /**
+     * Same options with the senses of the entities, within the given time budget in 
+     * milliseconds (0 for no limit).
+     */
+    public NERExtractionOptions withSenses(long senseBudgetMillis) {
+        return new NERExtractionOptions(boundingBoxes, layoutTokens, true, senseBudgetMillis);
+    }
+
+    public boolean isBoundingBoxes() {
+        return boundingBoxes;
+    }
+
+    public boolean isLayoutTokens() {
+        return layoutTokens;
+    }
+
+    public boolean isSenses() {
+        return senses;
+    }
+
+    public long getSenseBudgetMillis() {
+        return senseBudgetMillis;
+    }
+}
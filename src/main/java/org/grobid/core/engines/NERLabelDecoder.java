@@ -0,0 +1,240 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.GrobidModels;
+import org.grobid.core.data.Entity;
+import org.grobid.core.data.EntityBatch;
+import org.grobid.core.engines.label.TaggingLabels;
+import org.grobid.core.exceptions.GrobidException;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.lexicon.NERLexicon;
+import org.grobid.core.utilities.BoundingBoxCalculator;
+import org.grobid.core.utilities.LayoutTokensUtil;
+import org.grobid.core.utilities.OffsetPosition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decoding of the NER entities directly from the labels of a token sequence, as an
+ * alternative to the generic TaggingTokenClusteror. The labels are first read as integer
+ * ids, one per labelled token (only the last column of the labelled output is looked at),
+ * then the entity spans are built in a single pass over the ids.
+ *
+ * A label id encodes the entity type (NER_Type ordinal) and whether the label starts an
+ * entity ("B-" prefix, or "I-" as in the usual Grobid label scheme). An entity starts with
+ * such a label or when the type changes, and continues over the following tokens of the
+ * same type without prefix, which is the same segmentation as the one obtained with the
+ * clusteror.
+ */
+public class NERLabelDecoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NERLabelDecoder.class);
+
+    // label id of the tokens outside any entity
+    public static final int OUTSIDE = -1;
+
+    // confidence of the decoded entities, the default one of Entity
+    private static final float DEFAULT_CONF = (float) new Entity().getConf();
+
+    private static final NERLexicon.NER_Type[] TYPES = NERLexicon.NER_Type.values();
+
+    // label ids of all the known label strings
+    private static final Map<String, Integer> LABEL_IDS = new HashMap<>();
+
+    static {
+        for (NERLexicon.NER_Type type : TYPES) {
+            int id = type.ordinal() << 1;
+            LABEL_IDS.put(type.getName(), id);
+            LABEL_IDS.put(NERLexicon.START_ENTITY_LABEL_PREFIX + type.getName(), id | 1);
+            // "I-" is the beginning prefix of the usual Grobid label scheme
+            LABEL_IDS.put("I-" + type.getName(), id | 1);
+        }
+        LABEL_IDS.put("ATHLETIC_TEAM", NERLexicon.NER_Type.SPORT_TEAM.ordinal() << 1);
+        LABEL_IDS.put(NERLexicon.START_ENTITY_LABEL_PREFIX + "ATHLETIC_TEAM",
+            (NERLexicon.NER_Type.SPORT_TEAM.ordinal() << 1) | 1);
+        LABEL_IDS.put("O", OUTSIDE);
+        LABEL_IDS.put("<other>", OUTSIDE);
+    }
+
+    // unknown labels already reported, so that a warning is logged once per label
+    private static final Set<String> UNKNOWN_LABELS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Receives the entity spans of a decoded sequence, with the index of their first and
+     * last (inclusive) LayoutToken.
+     */
+    public interface SpanConsumer {
+        void accept(NERLexicon.NER_Type type, int firstToken, int lastToken);
+    }
+
+    private NERLabelDecoder() {
+    }
+
+    /**
+     * Label id of a label string. An unknown label (e.g. a type added in a retrained model) 
+     * is decoded as OUTSIDE, with a warning logged at its first occurrence.
+     */
+    public static int getLabelId(String label) {
+        Integer id = LABEL_IDS.get(label);
+        if (id == null)
+            id = LABEL_IDS.get(label.toUpperCase());
+        if (id == null) {
+            if (UNKNOWN_LABELS.add(label))
+                LOGGER.warn("Unknown NER label, the tokens with this label are not part of an entity: " + label);
+            return OUTSIDE;
+        }
+        return id;
+    }
+
+    public static NERLexicon.NER_Type getType(int labelId) {
+        return (labelId == OUTSIDE) ? null : TYPES[labelId >> 1];
+    }
+
+    public static boolean isBeginning(int labelId) {
+        return (labelId != OUTSIDE) && ((labelId & 1) != 0);
+    }
+
+    /**
+     * Read the label ids of a labelled output, one per non-empty line, the label being the
+     * last tab or space separated column. The number of labelled lines must be the expected
+     * number of rows.
+     */
+    public static int[] parseLabelIds(String result, int nbRows) {
+        int[] labelIds = new int[nbRows];
+        int row = 0;
+        int lineStart = 0;
+        int length = result.length();
+        while (lineStart < length) {
+            int lineEnd = result.indexOf('\n', lineStart);
+            if (lineEnd == -1)
+                lineEnd = length;
+            int end = lineEnd;
+            if ((end > lineStart) && (result.charAt(end - 1) == '\r'))
+                end--;
+            if (end > lineStart) {
+                int labelStart = end;
+                while (labelStart > lineStart) {
+                    char c = result.charAt(labelStart - 1);
+                    if ((c == '\t') || (c == ' '))
+                        break;
+                    labelStart--;
+                }
+                if (row == nbRows)
+                    throw new GrobidException("More labelled tokens than the " + nbRows + " expected ones");
+                labelIds[row++] = getLabelId(result.substring(labelStart, end));
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (row != nbRows)
+            throw new GrobidException(row + " labelled tokens instead of the " + nbRows + " expected ones");
+        return labelIds;
+    }
+
+    /**
+     * Index of the LayoutToken of each labelled row, the whitespace tokens not being labelled.
+     */
+    public static int[] getTokenIndexes(List<LayoutToken> tokens) {
+        int nb = 0;
+        for (LayoutToken token : tokens) {
+            if (!NERParserCommon.isSeparatorToken(token))
+                nb++;
+        }
+        int[] tokenIndexes = new int[nb];
+        int row = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (!NERParserCommon.isSeparatorToken(tokens.get(i)))
+                tokenIndexes[row++] = i;
+        }
+        return tokenIndexes;
+    }
+
+    /**
+     * Single pass over the label ids, the consumer is called for each entity span with the
+     * indexes of its first and last LayoutToken. There is one label id per row, i.e. per 
+     * non-whitespace token, tokenIndexes giving the index of the LayoutToken of each row.
+     */
+    public static void decode(int[] labelIds, int[] tokenIndexes, SpanConsumer consumer) {
+        int nbRows = tokenIndexes.length;
+        int currentType = OUTSIDE;
+        int firstRow = -1;
+        for (int row = 0; row < nbRows; row++) {
+            int labelId = labelIds[row];
+            int type = (labelId == OUTSIDE) ? OUTSIDE : (labelId >> 1);
+            if ((type != currentType) || isBeginning(labelId)) {
+                if (currentType != OUTSIDE)
+                    consumer.accept(TYPES[currentType], tokenIndexes[firstRow], tokenIndexes[row - 1]);
+                currentType = type;
+                firstRow = row;
+            }
+        }
+        if (currentType != OUTSIDE)
+            consumer.accept(TYPES[currentType], tokenIndexes[firstRow], tokenIndexes[nbRows - 1]);
+    }
+
+    /**
+     * Build the entities of a labelled sequence of LayoutToken. The text, the offsets and the
+     * bounding boxes of an entity are computed once from its tokens. The bounding boxes and 
+     * the LayoutToken of the entities are only set when requested by the options, the token 
+     * list of an entity being then copied so that it does not retain the whole sequence.
+     */
+    public static List<Entity> toEntities(GrobidModels model,
+                                          int[] labelIds,
+                                          int[] tokenIndexes,
+                                          List<LayoutToken> tokens,
+                                          NERExtractionOptions options) {
+        List<Entity> entities = new ArrayList<>();
+        decode(labelIds, tokenIndexes, entityCollector(model, tokens, options, entities));
+        return entities;
+    }
+
+    /**
+     * Span consumer adding the corresponding Entity objects to a list, see toEntities().
+     */
+    public static SpanConsumer entityCollector(GrobidModels model,
+                                               List<LayoutToken> tokens,
+                                               NERExtractionOptions options,
+                                               List<Entity> entities) {
+        return (type, firstToken, lastToken) -> {
+            List<LayoutToken> entityTokens = tokens.subList(firstToken, lastToken + 1);
+            if (options.isLayoutTokens())
+                entityTokens = new ArrayList<>(entityTokens);
+            Engine.getCntManager().i(TaggingLabels.labelFor(model, type.getName()));
+
+            String rawName = LayoutTokensUtil.normalizeText(LayoutTokensUtil.toText(entityTokens));
+            int start = entityTokens.get(0).getOffset();
+
+            Entity entity = new Entity();
+            entity.setRawName(rawName);
+            entity.setType(type);
+            entity.setOffsets(new OffsetPosition(start, start + rawName.length()));
+            if (options.isBoundingBoxes())
+                entity.setBoundingBoxes(BoundingBoxCalculator.calculate(entityTokens));
+            if (options.isLayoutTokens())
+                entity.setLayoutTokens(entityTokens);
+            entities.add(entity);
+        };
+    }
+
+    /**
+     * Span consumer adding the entities as rows of a columnar batch. The raw names and the 
+     * offsets are the same as the ones of the Entity objects built by toEntities().
+     */
+    public static SpanConsumer batchCollector(GrobidModels model,
+                                              List<LayoutToken> tokens,
+                                              EntityBatch.Builder batch) {
+        return (type, firstToken, lastToken) -> {
+            List<LayoutToken> entityTokens = tokens.subList(firstToken, lastToken + 1);
+            Engine.getCntManager().i(TaggingLabels.labelFor(model, type.getName()));
+
+            String rawName = LayoutTokensUtil.normalizeText(LayoutTokensUtil.toText(entityTokens));
+            int start = entityTokens.get(0).getOffset();
+            batch.add(type, start, start + rawName.length(), DEFAULT_CONF, rawName);
+        };
+    }
+}
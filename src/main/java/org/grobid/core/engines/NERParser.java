@@ -1,6 +1,7 @@
 package org.grobid.core.engines;
 
 import org.grobid.core.data.Entity;
+import org.grobid.core.data.EntityBatch;
 import org.grobid.core.layout.LayoutToken;
 
 import java.util.List;
@@ -16,9 +17,50 @@ public interface NERParser {
 
 	List<Entity> extractNE(List<LayoutToken> tokens);
 
+	/**
+	 * Extraction from a list of LayoutToken, the options indicating whether the bounding 
+	 * boxes and the LayoutToken of the entities are needed. By default the options are 
+	 * ignored.
+	 */
+	default List<Entity> extractNE(List<LayoutToken> tokens, NERExtractionOptions options) {
+		return extractNE(tokens);
+	}
+
+	/**
+	 * Extraction from a simple piece of text with the given options, e.g. for tagging the 
+	 * senses of the entities. By default the options are ignored.
+	 */
+	default List<Entity> extractNE(String text, NERExtractionOptions options) {
+		return extractNE(text);
+	}
+
+	/**
+	 * Extraction from a simple piece of text giving the entities as a columnar batch, for 
+	 * bulk processing. By default the batch is a copy of the extracted Entity objects. The
+	 * batch is never null, EntityBatch.EMPTY being returned when there is no entity.
+	 */
+	default EntityBatch extractNEBatch(String text) {
+		return EntityBatch.of(extractNE(text));
+	}
+
 	String createCONNLTrainingFromText(String text);
 
 	//String createXMLTrainingFromText(String text, StringBuilder sb);
 
 	String label(String text);
-}
\ No newline at end of file
+
+	/**
+	 * Shared NER pipeline used by the parser, null if the parser does not rely on it.
+	 */
+	default NERParserCommon getNerParserCommon() {
+		return null;
+	}
+
+	/**
+	 * Version of the model used by the parser, e.g. the path and modification time of the 
+	 * model file, null if unknown.
+	 */
+	default String getModelVersion() {
+		return null;
+	}
+}
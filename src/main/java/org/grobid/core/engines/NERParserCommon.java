@@ -1,30 +1,44 @@
 package org.grobid.core.engines;
 
-import com.googlecode.clearnlp.engine.EngineGetter;
-import com.googlecode.clearnlp.segmentation.AbstractSegmenter;
 import com.googlecode.clearnlp.tokenization.AbstractTokenizer;
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.io.FileUtils;
+import org.grobid.core.GrobidModel;
 import org.grobid.core.GrobidModels;
 import org.grobid.core.data.Entity;
+import org.grobid.core.data.EntityBatch;
 import org.grobid.core.data.Sense;
 import org.grobid.core.data.Sentence;
-import org.grobid.core.engines.label.TaggingLabel;
-import org.grobid.core.engines.tagging.GenericTaggerUtils;
+import org.grobid.core.engines.metrics.NERMetrics;
 import org.grobid.core.exceptions.GrobidException;
 import org.grobid.core.features.FeaturesVectorNER;
 import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.lexicon.Lexicon;
 import org.grobid.core.lexicon.LexiconPositionsIndexes;
-import org.grobid.core.tokenization.LabeledTokensContainer;
-import org.grobid.core.tokenization.TaggingTokenCluster;
-import org.grobid.core.tokenization.TaggingTokenClusteror;
+import org.grobid.core.lexicon.MultiLexiconMatcher;
+import org.grobid.core.lexicon.NERLexicon;
 import org.grobid.core.utilities.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
@@ -73,36 +87,271 @@ public class NERParserCommon {
         return ress.toString();
     }*/
 
+    // single-pass matcher of the NER lexicons, if null the grobid Lexicon is used
+    private MultiLexiconMatcher lexiconMatcher = null;
+
+    public MultiLexiconMatcher getLexiconMatcher() {
+        return lexiconMatcher;
+    }
+
+    public void setLexiconMatcher(MultiLexiconMatcher lexiconMatcher) {
+        this.lexiconMatcher = lexiconMatcher;
+    }
+
+    // processing measures, no-op by default
+    private NERMetrics metrics = NERMetrics.NOOP;
+
+    public NERMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(NERMetrics metrics) {
+        this.metrics = (metrics == null) ? NERMetrics.NOOP : metrics;
+    }
+
+    // splitting of the long token sequences before labelling, null for no limit
+    private SequenceChunker chunker = null;
+
+    // executor for labelling the chunks of a sequence in parallel, null for sequential labelling
+    private Executor chunkExecutor = null;
+
+    /**
+     * Set the maximum number of labelled tokens per labelling call, 0 for no limit. Longer
+     * token sequences are split at paragraph or sentence boundaries and the chunks are 
+     * labelled independently.
+     */
+    public void setMaxSequenceLength(int maxSequenceLength) {
+        this.chunker = (maxSequenceLength > 0) ? new SequenceChunker(maxSequenceLength) : null;
+    }
+
+    public int getMaxSequenceLength() {
+        return (chunker == null) ? 0 : chunker.getMaxSequenceLength();
+    }
+
+    public void setChunkExecutor(Executor chunkExecutor) {
+        this.chunkExecutor = chunkExecutor;
+    }
+
+    // sense model, loaded at the first extraction requesting the senses
+    private volatile SenseTagger senseTagger = null;
+
+    // creation of the sense model, with the default sense lexicon if null
+    private Supplier<SenseTagger> senseTaggerFactory = null;
+
+    public SenseTagger getSenseTagger() {
+        if (senseTagger == null) {
+            synchronized (this) {
+                if (senseTagger == null)
+                    senseTagger = (senseTaggerFactory == null) ? new SenseTagger() : senseTaggerFactory.get();
+            }
+        }
+        return senseTagger;
+    }
+
+    /**
+     * Set how the sense model is created at its first use, e.g. with a sense lexicon loaded
+     * from its binary index.
+     */
+    public void setSenseTaggerFactory(Supplier<SenseTagger> senseTaggerFactory) {
+        this.senseTaggerFactory = senseTaggerFactory;
+    }
+
+    public void setSenseTagger(SenseTagger senseTagger) {
+        this.senseTagger = senseTagger;
+    }
+
+    /**
+     * Run the NER pipeline on a list of LayoutToken: lexicon matching, feature generation,
+     * labelling with the given parser and extraction of the entities.
+     *
+     * If a maximum sequence length is set, a longer list is split into chunks labelled 
+     * independently (in parallel if a chunk executor is set), the entities being returned
+     * in the order of the tokens.
+     */
+    public List<Entity> extractNE(NERParser parser,
+                                  GrobidModels model,
+                                  Lexicon lexicon,
+                                  List<LayoutToken> tokens) {
+        return extractNE(parser, model, lexicon, tokens, NERExtractionOptions.LAYOUT);
+    }
+
+    /**
+     * NER pipeline on a list of LayoutToken, the options indicating whether the bounding 
+     * boxes and the LayoutToken of the entities are computed and kept, and whether the 
+     * senses of the entities are tagged. The sense model only labels windows of tokens 
+     * around the recognised entities, reusing the lexicon matches of the NER stage, until
+     * the time budget of the options is spent.
+     */
+    public List<Entity> extractNE(NERParser parser,
+                                  GrobidModels model,
+                                  Lexicon lexicon,
+                                  List<LayoutToken> tokens,
+                                  NERExtractionOptions options) {
+        long senseDeadline = (options.getSenseBudgetMillis() > 0) ? 
+            System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.getSenseBudgetMillis()) : 
+            SenseTagger.NO_DEADLINE;
+        List<List<Entity>> results = processChunks(tokens, chunk -> {
+            List<Entity> entities = new ArrayList<>();
+            List<Sense> senses = options.isSenses() ? new ArrayList<>() : null;
+            labelSequence(parser, model, lexicon, chunk, 
+                NERLabelDecoder.entityCollector(model, chunk, options, entities), senses, senseDeadline);
+            if (senses != null)
+                merge(entities, senses);
+            return entities;
+        });
+        if (results.size() == 1)
+            return results.get(0);
+
+        List<Entity> entities = new ArrayList<>();
+        for (List<Entity> result : results) {
+            entities.addAll(result);
+        }
+        return entities;
+    }
+
+    /**
+     * NER pipeline on a list of LayoutToken giving the entities as a columnar batch, for bulk 
+     * processing. The entities are the same as the ones of extractNE(), without bounding 
+     * boxes and LayoutToken.
+     */
+    public EntityBatch extractNEBatch(NERParser parser,
+                                      GrobidModels model,
+                                      Lexicon lexicon,
+                                      List<LayoutToken> tokens) {
+        List<EntityBatch> results = processChunks(tokens, chunk -> {
+            EntityBatch.Builder batch = new EntityBatch.Builder();
+            labelSequence(parser, model, lexicon, chunk, NERLabelDecoder.batchCollector(model, chunk, batch), 
+                null, SenseTagger.NO_DEADLINE);
+            return batch.build();
+        });
+        if (results.size() == 1)
+            return results.get(0);
+
+        EntityBatch.Builder batch = new EntityBatch.Builder();
+        for (EntityBatch result : results) {
+            batch.addAll(result);
+        }
+        return batch.build();
+    }
+
+    /**
+     * Apply a process to the chunks of a token sequence if a maximum sequence length is set,
+     * otherwise to the whole sequence. The results are in the order of the chunks.
+     */
+    private <T> List<T> processChunks(List<LayoutToken> tokens, Function<List<LayoutToken>, T> process) {
+        if ((chunker == null) || (tokens.size() <= chunker.getMaxSequenceLength()))
+            return Collections.singletonList(process.apply(tokens));
+
+        List<List<LayoutToken>> chunks = chunker.split(tokens);
+        if (chunks.size() == 1)
+            return Collections.singletonList(process.apply(tokens));
+
+        List<T> results = new ArrayList<>(chunks.size());
+        if (chunkExecutor == null) {
+            for (List<LayoutToken> chunk : chunks) {
+                results.add(process.apply(chunk));
+            }
+            return results;
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(chunks.size());
+        for (List<LayoutToken> chunk : chunks) {
+            futures.add(CompletableFuture.supplyAsync(() -> process.apply(chunk), chunkExecutor));
+        }
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new GrobidException("Labelling of a token sequence chunk failed", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * NER pipeline for a token sequence labelled in one call, the entity spans being passed 
+     * to the given consumer. If a sense list is given, the senses of the entities are added
+     * to it, see SenseTagger. Return the number of entities.
+     */
+    private int labelSequence(NERParser parser,
+                              GrobidModels model,
+                              Lexicon lexicon,
+                              List<LayoutToken> tokens,
+                              NERLabelDecoder.SpanConsumer consumer,
+                              List<Sense> senses,
+                              long senseDeadline) {
+        boolean timed = metrics.isEnabled();
+        long start = timed ? System.nanoTime() : 0;
+        long time = start;
+
+        LexiconPositionsIndexes positionsIndexes = new LexiconPositionsIndexes(lexicon, lexiconMatcher);
+        positionsIndexes.computeIndexes(tokens);
+        if (timed)
+            time = lap(model, NERMetrics.Stage.LEXICON_MATCHING, time);
+
+        // the Wapiti binding only takes text input, the features are streamed into a reused 
+        // builder and the labelled rows are mapped back to the non-whitespace tokens
+        String features = toFeatureVectorLayout(tokens, positionsIndexes);
+        int[] tokenIndexes = NERLabelDecoder.getTokenIndexes(tokens);
+        int nbRows = tokenIndexes.length;
+        if (timed)
+            time = lap(model, NERMetrics.Stage.FEATURES, time);
+
+        String result = parser.label(features);
+        if (timed)
+            time = lap(model, NERMetrics.Stage.LABELLING, time);
+
+        int[] labelIds = NERLabelDecoder.parseLabelIds(result, nbRows);
+        int[] nbEntities = new int[1];
+        NERLabelDecoder.decode(labelIds, tokenIndexes, (type, firstToken, lastToken) -> {
+            nbEntities[0]++;
+            consumer.accept(type, firstToken, lastToken);
+        });
+        if (timed)
+            time = lap(model, NERMetrics.Stage.ENTITY_EXTRACTION, time);
+
+        if ((senses != null) && (nbEntities[0] > 0)) {
+            senses.addAll(getSenseTagger().extractSenses(tokens, labelIds, tokenIndexes, 
+                positionsIndexes, SenseTagger.DEFAULT_CONTEXT_TOKENS, senseDeadline));
+            if (timed)
+                time = lap(model, NERMetrics.Stage.SENSE_TAGGING, time);
+        }
+
+        if (timed)
+            metrics.recordSequence(model.getModelName(), nbRows, nbEntities[0], time - start);
+        return nbEntities[0];
+    }
+
+    /**
+     * Record the duration of a stage up to now, return the current time.
+     */
+    private long lap(GrobidModels model, NERMetrics.Stage stage, long since) {
+        long now = System.nanoTime();
+        metrics.recordStage(model.getModelName(), stage, now - since);
+        return now;
+    }
+
+    /**
+     * Text serialization of the NER features, as expected by Wapiti, one line per 
+     * non-whitespace token. The feature columns are appended directly to a per-thread
+     * reusable builder.
+     */
     public static String toFeatureVectorLayout(List<LayoutToken> tokens, LexiconPositionsIndexes positionsIndexes) {
-        StringBuffer ress = new StringBuffer();
+        StringBuilder ress = getStringBuilder();
         int posit = 0; // keep track of the position index in the list of positions
 
         for (LayoutToken token : tokens) {
-            if ((token.getText() == null) ||
-                    (token.getText().length() == 0) ||
-                    token.getText().equals(" ") ||
-                    token.getText().equals("\t") ||
-                    token.getText().equals("\n") ||
-                    token.getText().equals("\r") ||
-                    token.getText().equals("\u00A0")) {
+            if (isSeparatorToken(token)) {
                 continue;
             }
 
             // check if the token is a known NE
             // do we have a NE at position posit?
-            boolean isLocationToken = LexiconPositionsIndexes
-                    .isTokenInLexicon(positionsIndexes.getLocalLocationPositions(), posit);
-            boolean isPersonTitleToken = LexiconPositionsIndexes
-                    .isTokenInLexicon(positionsIndexes.getLocalPersonTitlePositions(), posit);
-            boolean isOrganisationToken = LexiconPositionsIndexes
-                    .isTokenInLexicon(positionsIndexes.getLocalOrganisationPositions(), posit);
-            boolean isOrgFormToken = LexiconPositionsIndexes
-                    .isTokenInLexicon(positionsIndexes.getLocalOrgFormPositions(), posit);
-
-            ress.append(FeaturesVectorNER
-                    .addFeaturesNER(token.getText(),
-                            isLocationToken, isPersonTitleToken, isOrganisationToken, isOrgFormToken)
-                    .printVector());
+            FeaturesVectorNER
+                    .addFeaturesNER(token.getText(), positionsIndexes.getLexiconFlags(posit))
+                    .printVector(ress);
             ress.append("\n");
             posit++;
         }
@@ -110,22 +359,64 @@ public class NERParserCommon {
         return ress.toString();
     }
 
+    // reusable string builders for feature serialization, one per thread
+    private static final ThreadLocal<StringBuilder> stringBuilders =
+            ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    // above this capacity, a thread-local builder is not kept for reuse to avoid pinning memory
+    private static final int MAX_REUSED_BUILDER_CAPACITY = 1 << 20;
+
+    private static StringBuilder getStringBuilder() {
+        StringBuilder sb = stringBuilders.get();
+        if (sb.capacity() > MAX_REUSED_BUILDER_CAPACITY) {
+            sb = new StringBuilder(4096);
+            stringBuilders.set(sb);
+        }
+        sb.setLength(0);
+        return sb;
+    }
+
+    static boolean isSeparatorToken(LayoutToken token) {
+        String text = token.getText();
+        return (text == null) ||
+                (text.length() == 0) ||
+                text.equals(" ") ||
+                text.equals("\t") ||
+                text.equals("\n") ||
+                text.equals("\r") ||
+                text.equals("\u00A0");
+    }
+
+    /**
+     * Version of a model, as the path and the last modification time of its file, so that 
+     * the results of a retrained model are not mixed with the ones of the previous model.
+     */
+    public static String getModelVersion(GrobidModel model) {
+        File file = GrobidProperties.getModelPath(model);
+        if (file == null)
+            return model.getModelName();
+        return file.getAbsolutePath() + "@" + file.lastModified();
+    }
+
+    /**
+     * Set the sense of each entity to the first sense span within the entity offsets, null 
+     * if none. Both lists are ordered by offset and their spans do not overlap, so they are
+     * merged in one linear pass.
+     */
     public static void merge(List<Entity> entities, List<Sense> senses) {
-        Sense theSense = null;
         int sensePos = 0;
         for (Entity entity : entities) {
             int start = entity.getOffsetStart();
             int end = entity.getOffsetEnd();
 
+            Sense theSense = null;
             if (senses != null) {
-                for (int i = sensePos; i < senses.size(); i++) {
-                    Sense sense = senses.get(i);
-                    if ((sense.getOffsetStart() >= start) && (sense.getOffsetEnd() <= end)) {
-                        theSense = sense;
-                        sensePos = i;
-                        break;
-                    }
+                // a sense starting before the entity cannot be within a next entity either
+                while ((sensePos < senses.size()) && (senses.get(sensePos).getOffsetStart() < start)) {
+                    sensePos++;
                 }
+                if ((sensePos < senses.size()) && (senses.get(sensePos).getOffsetEnd() <= end))
+                    theSense = senses.get(sensePos);
             }
             entity.setSense(theSense);
         }
@@ -133,55 +424,14 @@ public class NERParserCommon {
 
     /**
      * Extract the named entities from a labelled sequence of LayoutToken.
-     * This version use the new Clusteror class.
+     * The entities are decoded directly from the labels of the tokens with NERLabelDecoder, 
+     * in one pass, giving the same segmentation as the Grobid TaggingTokenClusteror.
      */
     public List<Entity> resultExtraction(GrobidModels model, String result, List<LayoutToken> tokenizations) {
-
-        // convert to usual Grobid label scheme to use TaggingTokenClusteror
-        result = result.replace("\tB-", "\tI-");
-
-        List<Entity> entities = new ArrayList<Entity>();
-
-        TaggingTokenClusteror clusteror = new TaggingTokenClusteror(model, result, tokenizations);
-        List<TaggingTokenCluster> clusters = clusteror.cluster();
-        Entity currentEntity = null;
-        for (TaggingTokenCluster cluster : clusters) {
-            if (cluster == null) {
-                continue;
-            }
-
-            TaggingLabel clusterLabel = cluster.getTaggingLabel();
-            if (clusterLabel.getLabel().equals("O"))
-                continue;
-
-            Engine.getCntManager().i(clusterLabel);
-
-            String clusterContent = LayoutTokensUtil.normalizeText(LayoutTokensUtil.toText(cluster.concatTokens()));
-            currentEntity = new Entity();
-            currentEntity.setRawName(clusterContent);
-            currentEntity.setTypeFromString(GenericTaggerUtils.getPlainIOBLabel(clusterLabel.getLabel()));
-            currentEntity.setBoundingBoxes(BoundingBoxCalculator.calculate(cluster.concatTokens()));
-            currentEntity.setOffsets(calculateOffsets(cluster));
-            currentEntity.setLayoutTokens(cluster.concatTokens());
-            entities.add(currentEntity);
-        }
-
-        return entities;
-    }
-
-    private OffsetPosition calculateOffsets(TaggingTokenCluster cluster) {
-        final List<LabeledTokensContainer> labeledTokensContainers = cluster.getLabeledTokensContainers();
-        if (CollectionUtils.isEmpty(labeledTokensContainers) || CollectionUtils.isEmpty(labeledTokensContainers.get(0).getLayoutTokens())) {
-            return new OffsetPosition();
-        }
-
-        final LabeledTokensContainer labeledTokensContainer = labeledTokensContainers.get(0);
-        final List<LayoutToken> layoutTokens = labeledTokensContainer.getLayoutTokens();
-
-        int start = layoutTokens.get(0).getOffset();
-        int end = start + LayoutTokensUtil.normalizeText(LayoutTokensUtil.toText(cluster.concatTokens())).length();
-
-        return new OffsetPosition(start, end);
+        int[] tokenIndexes = NERLabelDecoder.getTokenIndexes(tokenizations);
+        int[] labelIds = NERLabelDecoder.parseLabelIds(result, tokenIndexes.length);
+        return NERLabelDecoder.toEntities(model, labelIds, tokenIndexes, tokenizations, 
+            NERExtractionOptions.LAYOUT);
     }
 
     /**
@@ -227,10 +477,9 @@ public class NERParserCommon {
                     if (currentEntity != null) {
                         int localPos = currentEntity.getOffsetEnd();
                         if (label.length() > 1) {
-                            String subtag = label.substring(2, label.length()).toLowerCase();
                             if ((currentEntity != null) &&
                                     (currentEntity.getType() != null) &&
-                                    (currentEntity.getType().getName().toLowerCase().equals(subtag)) &&
+                                    (currentEntity.getType() == NERLexicon.NER_Type.fromLabel(label)) &&
                                     (localPos == offset)) {
                                 currentEntity.setOffsetEnd(offset + addedOffset);
                                 offset += addedOffset;
@@ -243,9 +492,8 @@ public class NERParserCommon {
                         }
                     }
                     if (label.length() > 1) {
-                        String subtag = label.substring(2, label.length()).toLowerCase();
                         currentEntity = new Entity();
-                        currentEntity.setTypeFromString(subtag);
+                        currentEntity.setTypeFromString(label);
                         if ((text.length() > offset) && (text.charAt(offset) == ' ')) {
                             currentEntity.setOffsetStart(offset + 1);
                         } else
@@ -254,11 +502,9 @@ public class NERParserCommon {
                     }
                 } else if (!label.equals("O") && !label.equals("other")) {
                     if (label.length() > 1) {
-                        //String subtag = label.substring(2,label.length()).toLowerCase();
-                        String subtag = label.toLowerCase();
                         if ((currentEntity != null) &&
                                 (currentEntity.getType() != null) &&
-                                (currentEntity.getType().getName().toLowerCase().equals(subtag))) {
+                                (currentEntity.getType() == NERLexicon.NER_Type.fromLabel(label))) {
                             currentEntity.setOffsetEnd(offset + addedOffset);
                         } else {
                             // should not be the case, but we add the new entity, for robustness
@@ -268,7 +514,7 @@ public class NERParserCommon {
                                 entities.add(currentEntity);
                             }
                             currentEntity = new Entity();
-                            currentEntity.setTypeFromString(subtag);
+                            currentEntity.setTypeFromString(label);
                             currentEntity.setOffsetStart(offset);
                             currentEntity.setOffsetEnd(offset + addedOffset);
                         }
@@ -301,6 +547,18 @@ public class NERParserCommon {
                                                NERParser parser,
                                                String lang,
                                                AbstractTokenizer tokenizer) throws Exception {
+        return createTraining(inputFile, outputPath, fileName, parser, lang, new SentenceSegmenter(lang, tokenizer));
+    }
+
+    /**
+     * Same as above with a sentence segmenter reused from one file to another.
+     */
+    static public StringBuilder createTraining(String inputFile,
+                                               String outputPath,
+                                               String fileName,
+                                               NERParser parser,
+                                               String lang,
+                                               SentenceSegmenter segmenter) throws Exception {
         File file = new File(inputFile);
         if (!file.exists()) {
             throw new GrobidException("Cannot create training data because input file can not be accessed: " + inputFile);
@@ -313,7 +571,7 @@ public class NERParserCommon {
             // we use the name of the file as document ID, removing spaces, 
             // note that it could lead to non wellformed XML for weird file names
             sb.append("\t\t<document name=\"" + fileName.replace(" ", "_") + "\">\n");
-            createTrainingText(file, parser, lang, tokenizer, sb);
+            createTrainingText(file, parser, lang, segmenter, sb);
             sb.append("\t\t</document>\n");
 
             sb.append(xmlEnd);
@@ -330,6 +588,10 @@ public class NERParserCommon {
     }
 
     public static StringBuilder createTrainingText(File file, NERParser parser, String lang, AbstractTokenizer tokenizer, StringBuilder sb) throws IOException {
+        return createTrainingText(file, parser, lang, new SentenceSegmenter(lang, tokenizer), sb);
+    }
+
+    public static StringBuilder createTrainingText(File file, NERParser parser, String lang, SentenceSegmenter segmenter, StringBuilder sb) throws IOException {
         String text = FileUtils.readFileToString(file, "UTF-8");
 
         if (isEmpty(text))
@@ -352,7 +614,7 @@ public class NERParserCommon {
 
             // let's segment in sentences with ClearNLP (to be updated to the newest NLP4J !)
             // this is only outputed for readability
-            List<Sentence> sentences = NERParserCommon.sentenceSegmentation(theText, lang, tokenizer);
+            List<Sentence> sentences = segmenter.segment(theText);
             int sentenceIndex = 0;
             for (int s = 0; s < sentences.size(); s++) {
                 Sentence sentence = sentences.get(s);
@@ -419,100 +681,130 @@ public class NERParserCommon {
                                           String outputDirectory,
                                           NERParser parser,
                                           String lang) throws IOException {
+        return createTrainingBatch(inputDirectory, outputDirectory, parser, lang, false, 1);
+    }
+
+    /**
+     * Generate the pre-annotated training files for the .txt files of a directory, and of its
+     * sub-directories if recursive (the sub-directory structure being reproduced in the output
+     * directory). The files are processed in parallel by the given number of threads, each 
+     * one with its own ClearNLP sentence segmenter.
+     *
+     * A file whose .training.xml result already exists is skipped, so that an interrupted
+     * generation can be resumed. The results are written to a temporary file first and then 
+     * renamed, so a partial result is never taken as done. Return the number of processed 
+     * files.
+     */
+    static public int createTrainingBatch(String inputDirectory,
+                                          String outputDirectory,
+                                          NERParser parser,
+                                          String lang,
+                                          boolean recursive,
+                                          int nbThreads) throws IOException {
         // note that at the stage, we have already selected the NERParser according to the language
-        try {
-            File path = new File(inputDirectory);
-            if (!path.exists()) {
-                throw new GrobidException("Cannot create training data because input directory can not be accessed: " + inputDirectory);
-            }
+        File path = new File(inputDirectory);
+        if (!path.exists()) {
+            throw new GrobidException("Cannot create training data because input directory can not be accessed: " + inputDirectory);
+        }
 
-            File pathOut = new File(outputDirectory);
-            if (!pathOut.exists()) {
-                throw new GrobidException("Cannot create training data because ouput directory can not be accessed: " + outputDirectory);
-            }
+        File pathOut = new File(outputDirectory);
+        if (!pathOut.exists()) {
+            throw new GrobidException("Cannot create training data because ouput directory can not be accessed: " + outputDirectory);
+        }
 
-            // we process all pdf files in the directory
-            File[] refFiles = path.listFiles(new FilenameFilter() {
-                public boolean accept(File dir, String name) {
-                    return name.endsWith(".txt") || name.endsWith(".TXT");
-                }
-            });
+        // we process all txt files in the directory
+        List<File> refFiles = new ArrayList<>();
+        listTextFiles(path, recursive, refFiles);
 
-            if (refFiles == null)
-                return 0;
+        List<File> toProcess = new ArrayList<>();
+        for (File file : refFiles) {
+            if (!getTrainingOutputFile(path, pathOut, file).exists())
+                toProcess.add(file);
+        }
+        LOGGER.info(refFiles.size() + " files found, " + (refFiles.size() - toProcess.size()) + 
+            " already processed, " + toProcess.size() + " files to be processed.");
+        if (toProcess.isEmpty())
+            return 0;
 
-            LOGGER.info(refFiles.length + " files to be processed.");
+        // ClearParser components for sentence segmentation, one segmenter per thread
+        // slow down a bit at launch, but it is used only for generating more readable training
+        ThreadLocal<SentenceSegmenter> segmenters = ThreadLocal.withInitial(() -> SentenceSegmenter.load(lang));
 
-            // ClearParser components for sentence segmentation
-            // slow down a bit at launch, but it is used only for generating more readable training
-            String dictionaryFile = "data/clearNLP/dictionary-1.3.1.zip";
-            LOGGER.info("Loading dictionary file for sentence segmentation: " + dictionaryFile);
-            AbstractTokenizer tokenizer = EngineGetter.getTokenizer(lang, new FileInputStream(dictionaryFile));
-            LOGGER.info("End of loading dictionary file");
+        AtomicInteger nbProcessed = new AtomicInteger();
+        Consumer<File> process = file -> {
+            try {
+                String fileName = file.getName().substring(0, file.getName().length() - 4);
+                File outputFile = getTrainingOutputFile(path, pathOut, file);
+                File tmpFile = new File(outputFile.getPath() + ".tmp");
+                outputFile.getParentFile().mkdirs();
+                createTraining(file.getAbsolutePath(), tmpFile.getPath(), fileName, parser, lang, segmenters.get());
+                if (tmpFile.exists())
+                    Files.move(tmpFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                nbProcessed.incrementAndGet();
+            } catch (final Exception exp) {
+                LOGGER.error("An error occured while processing the following file: "
+                        + file.getPath() + ": ", exp);
+            }
+        };
 
-            for (final File file : refFiles) {
+        try {
+            if (nbThreads <= 1) {
+                for (File file : toProcess) {
+                    process.accept(file);
+                }
+            } else {
+                ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
                 try {
-                    String fileName = file.getName().substring(0, file.getName().length() - 4);
-                    String outputPath = outputDirectory + "/" + fileName + ".training.xml";
-                    createTraining(file.getAbsolutePath(), outputPath, fileName, parser, lang, tokenizer);
-                } catch (final Exception exp) {
-                    LOGGER.error("An error occured while processing the following pdf: "
-                            + file.getPath() + ": ", exp);
+                    List<Future<?>> futures = new ArrayList<>();
+                    for (File file : toProcess) {
+                        futures.add(executor.submit(() -> process.accept(file)));
+                    }
+                    for (Future<?> future : futures) {
+                        future.get();
+                    }
+                } finally {
+                    executor.shutdown();
                 }
             }
-
-            return refFiles.length;
+            return nbProcessed.get();
         } catch (final Exception exp) {
             throw new GrobidException("An exception occured while running Grobid batch.", exp);
         }
     }
 
+    private static void listTextFiles(File directory, boolean recursive, List<File> files) {
+        File[] children = directory.listFiles();
+        if (children == null)
+            return;
+        Arrays.sort(children);
+        for (File child : children) {
+            if (child.isDirectory()) {
+                if (recursive)
+                    listTextFiles(child, true, files);
+            } else if (child.getName().endsWith(".txt") || child.getName().endsWith(".TXT")) {
+                files.add(child);
+            }
+        }
+    }
+
+    /**
+     * Training file of an input file, at the same relative path in the output directory.
+     */
+    private static File getTrainingOutputFile(File inputDirectory, File outputDirectory, File file) {
+        String name = file.getName().substring(0, file.getName().length() - 4) + ".training.xml";
+        Path relative = inputDirectory.toPath().relativize(file.toPath().getParent());
+        return new File(outputDirectory.toPath().resolve(relative).toFile(), name);
+    }
+
     // some pieces of XML for generating training data
     public static String xmlHeader = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<corpus>\n\t<subcorpus>\n";
     public static String xmlEnd = "\t</subcorpus>\n</corpus>\n";
 
+    /**
+     * Sentence segmentation of a text, building a new segmenter: for segmenting several 
+     * texts, a SentenceSegmenter should rather be reused.
+     */
     public static List<Sentence> sentenceSegmentation(String text, String language, AbstractTokenizer tokenizer) {
-        AbstractSegmenter segmenter = EngineGetter.getSegmenter(language, tokenizer);
-        // convert String into InputStream
-        InputStream is = new ByteArrayInputStream(text.getBytes());
-        // read it with BufferedReader
-        BufferedReader br = new BufferedReader(new InputStreamReader(is));
-        List<List<String>> sentences = segmenter.getSentences(br);
-        List<Sentence> results = new ArrayList<Sentence>();
-
-        if ((sentences == null) || (sentences.size() == 0)) {
-            // there is some text but not in a state so that a sentence at least can be
-            // identified by the sentence segmenter, so we parse it as a single sentence
-            Sentence sentence = new Sentence();
-            OffsetPosition pos = new OffsetPosition();
-            pos.start = 0;
-            pos.end = text.length();
-            sentence.setOffsets(pos);
-            results.add(sentence);
-            return results;
-        }
-
-        // we need to realign with the original sentences, so we have to match it from the text 
-        // to be parsed based on the tokenization
-        int offSetSentence = 0;
-        //List<List<String>> trueSentences = new ArrayList<List<String>>();
-        for (List<String> theSentence : sentences) {
-            int next = offSetSentence;
-            for (String token : theSentence) {
-                next = text.indexOf(token, next);
-                next = next + token.length();
-            }
-            List<String> dummy = new ArrayList<String>();
-            //dummy.add(text.substring(offSetSentence, next));   
-            //trueSentences.add(dummy);   
-            Sentence sentence = new Sentence();
-            OffsetPosition pos = new OffsetPosition();
-            pos.start = offSetSentence;
-            pos.end = next;
-            sentence.setOffsets(pos);
-            results.add(sentence);
-            offSetSentence = next;
-        }
-        return results;
+        return new SentenceSegmenter(language, tokenizer).segment(text);
     }
 }
@@ -1,17 +1,41 @@
 package org.grobid.core.engines;
 
+import org.grobid.core.GrobidModels;
 import org.grobid.core.data.Entity;
+import org.grobid.core.data.EntityBatch;
+import org.grobid.core.data.EntityExtractionResult;
+import org.grobid.core.engines.metrics.NERMetrics;
+import org.grobid.core.engines.metrics.NERMetricsRegistry;
+import org.grobid.core.exceptions.GrobidException;
 import org.grobid.core.exceptions.GrobidResourceException;
 import org.grobid.core.lang.Language;
-import org.grobid.core.utilities.LanguageUtilities;
-import org.grobid.core.utilities.LayoutTokensUtil;
+import org.grobid.core.lexicon.MultiLexiconMatcher;
+import org.grobid.core.lexicon.NERLexicon;
+import org.grobid.core.utilities.GrobidNerConfiguration;
 import org.grobid.core.layout.LayoutToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
@@ -24,17 +48,151 @@ public class NERParsers {
 
     private static Logger LOGGER = LoggerFactory.getLogger(NERParsers.class);
 
-    private Map<String, NERParser> parsers = null;
+    // supported languages and the corresponding parser constructors
+    private static final Map<String, Supplier<NERParser>> SUPPORTED_PARSERS = new LinkedHashMap<>();
+
+    static {
+        SUPPORTED_PARSERS.put("en", NEREnParser::new);
+        SUPPORTED_PARSERS.put("fr", NERFrParser::new);
+    }
+
+    /**
+     * Parser of an enabled language, created at first use.
+     */
+    private class LanguageParser {
+        private final String lang;
+        private final Supplier<NERParser> factory;
+        private volatile NERParser parser = null;
+
+        LanguageParser(String lang, Supplier<NERParser> factory) {
+            this.lang = lang;
+            this.factory = factory;
+        }
+
+        NERParser get() {
+            NERParser result = parser;
+            if (result == null) {
+                synchronized (this) {
+                    result = parser;
+                    if (result == null) {
+                        long start = System.currentTimeMillis();
+                        result = factory.get();
+                        setUp(result);
+                        if ((entityCache != null) && entityCache.setModelVersion(lang, modelVersion(result)))
+                            LOGGER.info("Model for '" + lang + "' changed, the cached entities are invalidated");
+                        parser = result;
+                        LOGGER.info("NER parser for '" + lang + "' loaded in " + 
+                            (System.currentTimeMillis() - start) + " ms");
+                    }
+                }
+            }
+            return result;
+        }
+
+        NERParser getIfLoaded() {
+            return parser;
+        }
+    }
+
+    // enabled languages, fixed at construction
+    private final Map<String, LanguageParser> parsers = new LinkedHashMap<>();
+
+    // processing options applied to the pipeline of each created parser, null for the defaults
+    private GrobidNerConfiguration configuration = null;
+    private MultiLexiconMatcher lexiconMatcher = null;
+
+    private LanguageIdentifier languageIdentifier = new LanguageIdentifier();
+
+    // cache of the entities extracted from plain texts, null if disabled
+    private EntityResultCache entityCache = null;
+
+    // window and overlap sizes in characters for the streaming extraction
+    private int streamingWindowSize = 20000;
+    private int streamingOverlap = 1000;
+
+    // number of threads of the default batch executor, 0 for the number of available processors
+    private int batchThreads = 0;
+
+    // default executor of the batch extraction, created at first use
+    private volatile ExecutorService batchExecutor = null;
+
+    // executor for labelling in parallel the chunks of long sequences, null if not used
+    private ExecutorService chunkExecutor = null;
+
+    // latency and throughput of the extraction, no-op if not enabled
+    private NERMetrics metrics = NERMetrics.NOOP;
+
+    // default number of passes over the warm-up sentences
+    public static final int DEFAULT_WARM_UP_ITERATIONS = 50;
+
+    // synthetic sentences for the warm-up, by language, English being used by default
+    private static final Map<String, String> WARM_UP_SENTENCES = new HashMap<>();
+
+    static {
+        WARM_UP_SENTENCES.put("en", "John Smith, the chairman of the European Commission, flew from Paris " + 
+            "to the headquarters of the United Nations in New York on Monday 12 March 2018.");
+        WARM_UP_SENTENCES.put("fr", "Jean Dupont, président de la Commission européenne, a quitté Paris " + 
+            "pour le siège des Nations unies à New York le lundi 12 mars 2018.");
+    }
+
+    // completion of the warm-up, null if not started
+    private volatile CompletableFuture<Void> warmUp = null;
 
     public NERParsers(HashMap<String, NERParser> parsers) {
-        this.parsers = parsers;
+        for (Map.Entry<String, NERParser> entry : parsers.entrySet()) {
+            NERParser parser = entry.getValue();
+            this.parsers.put(entry.getKey(), new LanguageParser(entry.getKey(), () -> parser));
+        }
     }
 
+    /**
+     * Parsers of all the supported languages, each one being created at first use.
+     */
     public NERParsers() {
-        parsers = new HashMap<String, NERParser>();
-        // supported languages
-        parsers.put("en", new NEREnParser());
-        parsers.put("fr", new NERFrParser());
+        this(SUPPORTED_PARSERS.keySet());
+    }
+
+    /**
+     * Parsers of the given languages, each one being created at first use.
+     */
+    public NERParsers(Collection<String> languages) {
+        for (String lang : languages) {
+            Supplier<NERParser> factory = SUPPORTED_PARSERS.get(lang);
+            if (factory == null) {
+                throw new GrobidResourceException("Language not supported by grobid-ner: " + lang + 
+                    ", the supported languages are " + SUPPORTED_PARSERS.keySet());
+            }
+            parsers.put(lang, new LanguageParser(lang, factory));
+        }
+    }
+
+    /**
+     * Parsers of the languages enabled in the grobid-ner configuration, with its processing 
+     * options. The parsers are created at first use.
+     */
+    public NERParsers(GrobidNerConfiguration configuration) {
+        this(((configuration == null) || (configuration.getLanguages() == null) || configuration.getLanguages().isEmpty()) ?
+            SUPPORTED_PARSERS.keySet() : configuration.getLanguages());
+        if (configuration == null)
+            return;
+        this.configuration = configuration;
+
+        batchThreads = configuration.getBatchThreads();
+        languageIdentifier = new LanguageIdentifier(LanguageIdentifier.DEFAULT_MAX_LENGTH,
+            configuration.getLanguageIdCacheSize());
+        if (configuration.getStreamingWindowSize() > 0)
+            streamingWindowSize = configuration.getStreamingWindowSize();
+        if (configuration.getStreamingOverlap() > 0)
+            streamingOverlap = configuration.getStreamingOverlap();
+        if (configuration.getEntityCacheSizeMB() > 0)
+            entityCache = new EntityResultCache(configuration.getEntityCacheSizeMB() * 1024L * 1024L);
+
+        lexiconMatcher = configuration.isCombinedLexiconMatcher() ?
+            MultiLexiconMatcher.getInstance(configuration.getLexicons()) : null;
+        if (configuration.getChunkThreads() > 0)
+            chunkExecutor = newExecutor(configuration.getChunkThreads(), "grobid-ner-chunk-");
+        if (configuration.isMetrics())
+            metrics = new NERMetricsRegistry();
     }
 
     /**
@@ -43,14 +201,7 @@ public class NERParsers {
      * the identified language is supported.
      */
     public List<Entity> extractNE(String text) throws GrobidResourceException {
-        // run language identifier
-        LanguageUtilities languageIdentifier = LanguageUtilities.getInstance();                     
-        Language resultLang = null;
-        synchronized (languageIdentifier) {       
-            resultLang = languageIdentifier.runLanguageId(text);  
-        }
-
-        return extractNE(text, resultLang);
+        return extractNE(text, null);
     }
 
     /**
@@ -59,41 +210,86 @@ public class NERParsers {
      * processed if the identified language is supported.
      */
     public List<Entity> extractNE(List<LayoutToken> tokens) throws GrobidResourceException {
-        // run language identifier
-        LanguageUtilities languageIdentifier = LanguageUtilities.getInstance();                     
-        Language resultLang = null;
-        synchronized (languageIdentifier) {       
-            resultLang = languageIdentifier.runLanguageId(LayoutTokensUtil.toText(tokens), 2000); 
-        }
-
-        return extractNE(tokens, resultLang);
+        return extractNE(tokens, null);
     }
 
     /**
      * Extract all occurrences of named entity from a simple piece of text and a given language.
+     * If the language is null, it is identified automatically.
      */
     public List<Entity> extractNE(String text, Language lang) throws GrobidResourceException {
+        return extractNE(text, lang, null);
+    }
+
+    /**
+     * Extract all occurrences of named entity from a simple piece of text and a given language,
+     * with the given extraction options, e.g. for tagging the senses of the entities within a
+     * time budget. If the options are null, the default ones of the parser are used. If the 
+     * language is null, it is identified automatically. The entity cache is only used with 
+     * the default options: when it is enabled, the entities are extracted as plain text, 
+     * without layout tokens, bounding boxes or senses, for a hit and a miss alike.
+     */
+    public List<Entity> extractNE(String text, Language lang, NERExtractionOptions options) throws GrobidResourceException {
 
         if (isEmpty(text))
             return null;
 
         text = text.replace("\n", " ");
 
+        lang = languageIdentifier.identify(text, lang);
         if (lang == null) {
-            return extractNE(text);
+            throw new GrobidResourceException("The language of the text could not be identified");
         }
 
-        NERParser parser = parsers.get(lang.getLang());
+        NERParser parser = getParser(lang.getLang());
         if (parser == null) {
             throw new GrobidResourceException("The automatically identified language is currently not supported by grobid-ner: " +
                 lang.getLang());
         }
 
-        return parser.extractNE(text);
+        if (options != null)
+            return parser.extractNE(text, options);
+
+        if (entityCache == null)
+            return parser.extractNE(text);
+
+        List<Entity> entities = entityCache.get(lang.getLang(), text);
+        if (entities == null) {
+            entities = parser.extractNE(text, NERExtractionOptions.TEXT);
+            entityCache.put(lang.getLang(), text, entities);
+        }
+        return entities;
+    }
+
+    /**
+     * Extract all occurrences of named entity from a simple piece of text and a given language
+     * as a columnar batch, for bulk processing where keeping the Entity objects is too costly.
+     * If the language is null, it is identified automatically. The entity cache is not used.
+     */
+    public EntityBatch extractNEBatch(String text, Language lang) throws GrobidResourceException {
+
+        if (isEmpty(text))
+            return EntityBatch.EMPTY;
+
+        text = text.replace("\n", " ");
+
+        lang = languageIdentifier.identify(text, lang);
+        if (lang == null) {
+            throw new GrobidResourceException("The language of the text could not be identified");
+        }
+
+        NERParser parser = getParser(lang.getLang());
+        if (parser == null) {
+            throw new GrobidResourceException("The automatically identified language is currently not supported by grobid-ner: " +
+                lang.getLang());
+        }
+
+        return parser.extractNEBatch(text);
     }
 
     /**
      * Extract all occurrences of named entity from a list of LayoutToken and a given language.
+     * If the language is null, it is identified automatically.
      */
     public List<Entity> extractNE(List<LayoutToken> tokens, Language lang) throws GrobidResourceException {
 
@@ -102,11 +298,12 @@ public class NERParsers {
 
         //text = text.replace("\n", " ");
 
+        lang = languageIdentifier.identify(tokens, lang);
         if (lang == null) {
-            return extractNE(tokens);
+            throw new GrobidResourceException("The language of the text could not be identified");
         }
 
-        NERParser parser = parsers.get(lang.getLang());
+        NERParser parser = getParser(lang.getLang());
         if (parser == null) {
             throw new GrobidResourceException("The automatically identified language is currently not supported by grobid-ner: " +
                 lang.getLang());
@@ -115,19 +312,329 @@ public class NERParsers {
         return parser.extractNE(tokens);
     }
 
+    /**
+     * Extract the named entities of a text of any length read from a Reader, with bounded
+     * memory: the text is labelled by overlapping windows and the entities are given to 
+     * the consumer as soon as they are available, see EntityStream. If the language is null,
+     * it is identified on the first window. Return the number of entities.
+     */
+    public int extractNE(Reader reader, Language lang, Consumer<Entity> consumer) {
+        int nb = 0;
+        Iterator<Entity> entities = streamNE(reader, lang);
+        while (entities.hasNext()) {
+            consumer.accept(entities.next());
+            nb++;
+        }
+        return nb;
+    }
+
+    /**
+     * Iterator over the named entities of a text of any length read from a Reader, labelled
+     * lazily by overlapping windows, see extractNE(Reader, Language, Consumer).
+     */
+    public Iterator<Entity> streamNE(Reader reader, Language lang) {
+        return new EntityStream(this, reader, lang, streamingWindowSize, streamingOverlap);
+    }
+
+    public void setStreamingWindow(int windowSize, int overlap) {
+        this.streamingWindowSize = windowSize;
+        this.streamingOverlap = overlap;
+    }
+
+    /**
+     * Extract the named entities of a batch of texts, processed in parallel with the given
+     * executor (or with the default batch executor if null). The language of each text is 
+     * identified automatically.
+     * 
+     * The results are returned in the order of the input texts. The failure of a text is 
+     * reported in its result and does not interrupt the processing of the other texts.
+     */
+    public List<EntityExtractionResult> extractNE(List<String> texts, Executor executor) {
+        return extractNE(texts, null, executor);
+    }
+
+    /**
+     * Extract the named entities of a batch of texts of a given language, null if the 
+     * language has to be identified for each text, see extractNE(List<String>, Executor).
+     */
+    public List<EntityExtractionResult> extractNE(List<String> texts, Language lang, Executor executor) {
+        return extractNEAsync(texts, lang, executor).join();
+    }
+
+    /**
+     * Asynchronous version of extractNE(List<String>, Language, Executor): the returned future
+     * completes when all the texts of the batch have been processed, it never completes 
+     * exceptionally because of the failure of a text.
+     */
+    public CompletableFuture<List<EntityExtractionResult>> extractNEAsync(List<String> texts,
+                                                                          Language lang,
+                                                                          Executor executor) {
+        if ((texts == null) || (texts.size() == 0))
+            return CompletableFuture.completedFuture(new ArrayList<>());
+
+        if (executor == null)
+            executor = getBatchExecutor();
+
+        List<CompletableFuture<EntityExtractionResult>> futures = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            final int index = i;
+            final String text = texts.get(i);
+            futures.add(CompletableFuture
+                .supplyAsync(() -> extractNE(text, lang), executor)
+                .handle((entities, error) -> {
+                    if (error != null) {
+                        if ((error instanceof CompletionException) && (error.getCause() != null))
+                            error = error.getCause();
+                        LOGGER.warn("Named entity extraction failed for the text " + index + " of the batch", error);
+                    }
+                    return new EntityExtractionResult(index, entities, error);
+                }));
+        }
+
+        return CompletableFuture
+            .allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(v -> {
+                List<EntityExtractionResult> results = new ArrayList<>(futures.size());
+                for (CompletableFuture<EntityExtractionResult> future : futures) {
+                    results.add(future.join());
+                }
+                return results;
+            });
+    }
+
+    private ExecutorService getBatchExecutor() {
+        if (batchExecutor == null) {
+            synchronized (this) {
+                if (batchExecutor == null) {
+                    int nbThreads = (batchThreads > 0) ? batchThreads : Runtime.getRuntime().availableProcessors();
+                    batchExecutor = newExecutor(nbThreads, "grobid-ner-batch-");
+                }
+            }
+        }
+        return batchExecutor;
+    }
+
+    /**
+     * Load the models and warm up the extraction of all the parsers, in parallel (one thread 
+     * per language). Each parser processes a synthetic sentence the given number of times, 
+     * which runs every stage of the pipeline (tokenization, lexicon matching, features, 
+     * labelling, decoding) so that the models are loaded and the code is JIT-compiled 
+     * before the first actual request. The language identifier is loaded too.
+     *
+     * The warm-up is only started once, the returned future gives its completion. The 
+     * warm-up extractions are not recorded in the metrics, the requests processed in the
+     * meantime by other threads are.
+     */
+    public synchronized CompletableFuture<Void> warmUpAsync(int iterations) {
+        if (warmUp != null)
+            return warmUp;
+
+        long start = System.currentTimeMillis();
+        ExecutorService executor = newExecutor(parsers.size() + 1, "grobid-ner-warmup-");
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        futures.add(CompletableFuture.runAsync(
+            () -> languageIdentifier.identify(WARM_UP_SENTENCES.get("en"), null), executor));
+        for (String lang : parsers.keySet()) {
+            String sentence = WARM_UP_SENTENCES.getOrDefault(lang, WARM_UP_SENTENCES.get("en"));
+            futures.add(CompletableFuture.runAsync(() -> metrics.runUnrecorded(() -> {
+                NERParser parser = getParser(lang);
+                for (int i = 0; i < iterations; i++) {
+                    parser.extractNE(sentence);
+                }
+            }), executor));
+        }
+
+        warmUp = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .whenComplete((result, e) -> {
+                executor.shutdown();
+                if (e != null) {
+                    LOGGER.error("Warm-up of the NER parsers failed", e);
+                    return;
+                }
+                LOGGER.info("NER parsers warmed up in " + (System.currentTimeMillis() - start) + " ms");
+            });
+        return warmUp;
+    }
+
+    /**
+     * Start the background warm-up with the number of iterations of the configuration 
+     * (warmUpIterations), to be called once the NERParsers is set up, e.g. at the start of 
+     * a service. Return the completion of the warm-up, an already completed future if no 
+     * warm-up is configured.
+     */
+    public CompletableFuture<Void> start() {
+        int iterations = (configuration == null) ? 0 : configuration.getWarmUpIterations();
+        if (iterations <= 0)
+            return CompletableFuture.completedFuture(null);
+        return warmUpAsync(iterations);
+    }
+
+    /**
+     * Synchronous warm-up with the default number of iterations, see warmUpAsync().
+     */
+    public void warmUp() {
+        try {
+            warmUpAsync(DEFAULT_WARM_UP_ITERATIONS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new GrobidException("Warm-up of the NER parsers failed", e.getCause());
+        }
+    }
+
+    /**
+     * True when the warm-up has completed successfully, for gating the traffic until the 
+     * models are loaded. False if the warm-up has not been started, is running or failed.
+     */
+    public boolean isReady() {
+        CompletableFuture<Void> future = warmUp;
+        return (future != null) && future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    private static ExecutorService newExecutor(int nbThreads, String threadNamePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(nbThreads, runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Release the threads of the default batch executor and of the chunk executor, if they 
+     * have been created.
+     */
+    public void shutdown() {
+        ExecutorService executor = batchExecutor;
+        if (executor != null) {
+            executor.shutdown();
+            batchExecutor = null;
+        }
+        if (chunkExecutor != null) {
+            executor = chunkExecutor;
+            chunkExecutor = null;
+            for (LanguageParser languageParser : parsers.values()) {
+                NERParser parser = languageParser.getIfLoaded();
+                if ((parser != null) && (parser.getNerParserCommon() != null))
+                    parser.getNerParserCommon().setChunkExecutor(null);
+            }
+            executor.shutdown();
+        }
+    }
+
     public int createTrainingBatch(String inputDirectory,
                                    String outputDirectory,
                                    String lang) throws Exception {
-        NERParser parser = parsers.get(lang);
+        return createTrainingBatch(inputDirectory, outputDirectory, lang, false);
+    }
+
+    /**
+     * Generate the pre-annotated training files of a directory, of its sub-directories too if
+     * recursive, with the number of threads of the configuration (trainingThreads). Files 
+     * already having a training file are skipped, see NERParserCommon.createTrainingBatch().
+     */
+    public int createTrainingBatch(String inputDirectory,
+                                   String outputDirectory,
+                                   String lang,
+                                   boolean recursive) throws Exception {
+        NERParser parser = getParser(lang);
         if (parser == null) {
             throw new GrobidResourceException("The automatically identified labnguage is currently not supported by grobid-ner: " + 
                 lang);
         }
-        return NERParserCommon.createTrainingBatch(inputDirectory, outputDirectory, parser, lang);
+        int nbThreads = (configuration == null) ? 1 : configuration.getTrainingThreads();
+        return NERParserCommon.createTrainingBatch(inputDirectory, outputDirectory, parser, lang, 
+            recursive, nbThreads);
+    }
+
+    public LanguageIdentifier getLanguageIdentifier() {
+        return languageIdentifier;
+    }
+
+    public void setLanguageIdentifier(LanguageIdentifier languageIdentifier) {
+        this.languageIdentifier = languageIdentifier;
     }
 
+    /**
+     * Cache of the extracted entities (for the hit ratio and the invalidation), null if 
+     * not enabled. The versions of the models are registered in the cache as the parsers 
+     * are loaded.
+     */
+    public EntityResultCache getEntityCache() {
+        return entityCache;
+    }
+
+    public void setEntityCache(EntityResultCache entityCache) {
+        if (entityCache != null) {
+            for (LanguageParser languageParser : parsers.values()) {
+                NERParser parser = languageParser.getIfLoaded();
+                if (parser != null)
+                    entityCache.setModelVersion(languageParser.lang, modelVersion(parser));
+            }
+        }
+        this.entityCache = entityCache;
+    }
+
+    /**
+     * Version of the model of a parser for the entity cache, the parser instance itself 
+     * if the version is unknown.
+     */
+    private static String modelVersion(NERParser parser) {
+        String version = parser.getModelVersion();
+        return (version != null) ? version :
+            parser.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(parser));
+    }
+
+    /**
+     * Metrics of the extraction shared by the parsers, NERMetrics.NOOP if not enabled 
+     * (a NERMetricsRegistry otherwise, see NERMetricsRegistry.report()).
+     */
+    public NERMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Parser of a language, created if not yet loaded, null if the language is not enabled.
+     */
     public NERParser getParser(String lang) {
-        return parsers.get(lang);
+        LanguageParser languageParser = parsers.get(lang);
+        return (languageParser == null) ? null : languageParser.get();
+    }
+
+    /**
+     * Enabled languages, whether their parser is loaded or not.
+     */
+    public Set<String> getLanguages() {
+        return Collections.unmodifiableSet(parsers.keySet());
+    }
+
+    /**
+     * Languages whose parser is currently loaded.
+     */
+    public Set<String> getLoadedLanguages() {
+        Set<String> languages = new LinkedHashSet<>();
+        for (LanguageParser languageParser : parsers.values()) {
+            if (languageParser.getIfLoaded() != null)
+                languages.add(languageParser.lang);
+        }
+        return languages;
+    }
+
+    /**
+     * Apply the processing options of the configuration to the pipeline of a new parser.
+     */
+    private void setUp(NERParser parser) {
+        NERParserCommon nerParserCommon = parser.getNerParserCommon();
+        if ((configuration == null) || (nerParserCommon == null))
+            return;
+        nerParserCommon.setLexiconMatcher(lexiconMatcher);
+        nerParserCommon.setMaxSequenceLength(configuration.getMaxSequenceLength());
+        nerParserCommon.setChunkExecutor(chunkExecutor);
+        nerParserCommon.setMetrics(metrics);
+        File senseDescriptionsIndex = configuration.isSenseDescriptionsIndex() ?
+            NERLexicon.getDescriptionsIndexFile(configuration.getSenseDescriptionsIndexPath()) : null;
+        nerParserCommon.setSenseTaggerFactory(() -> 
+            new SenseTagger(GrobidModels.ENTITIES_NERSense, NERLexicon.getInstance(senseDescriptionsIndex)));
     }
 
  }
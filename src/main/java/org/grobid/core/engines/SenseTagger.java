@@ -4,19 +4,21 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.grobid.core.GrobidModel;
 import org.grobid.core.GrobidModels;
+import org.grobid.core.analyzers.GrobidAnalyzer;
 import org.grobid.core.data.Sense;
 import org.grobid.core.engines.tagging.GenericTaggerUtils;
 import org.grobid.core.exceptions.GrobidException;
 import org.grobid.core.features.FeaturesVectorNERSense;
+import org.grobid.core.lang.Language;
+import org.grobid.core.layout.LayoutToken;
 import org.grobid.core.lexicon.Lexicon;
 import org.grobid.core.lexicon.LexiconPositionsIndexes;
 import org.grobid.core.lexicon.NERLexicon;
-import org.grobid.core.utilities.OffsetPosition;
-import org.grobid.core.utilities.TextUtilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.StringTokenizer;
 
 //import org.grobid.core.utilities.Pair;
 
@@ -27,11 +29,24 @@ import java.util.StringTokenizer;
  */
 public class SenseTagger extends AbstractParser {
 
-	protected NERLexicon nerLexicon = NERLexicon.getInstance();
+	private static final Logger LOGGER = LoggerFactory.getLogger(SenseTagger.class);
+
+	// number of tokens labelled on each side of a recognised entity
+	public static final int DEFAULT_CONTEXT_TOKENS = 5;
+
+	// no time limit for the sense tagging of a sequence
+	public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+	protected final NERLexicon nerLexicon;
 	protected Lexicon lexicon = Lexicon.getInstance();
 
 	public SenseTagger(GrobidModel model) {
-	    super(model);
+	    this(model, NERLexicon.getInstance());
+    }
+
+    public SenseTagger(GrobidModel model, NERLexicon nerLexicon) {
+        super(model);
+        this.nerLexicon = nerLexicon;
     }
 
     public SenseTagger() {
@@ -39,145 +54,39 @@ public class SenseTagger extends AbstractParser {
     }
 
     /**
-     * Extract all occurences of NER senses from a simple piece of text.
+     * Extract all occurences of NER senses from a simple piece of text. The text is tokenized
+     * like for the NER, see extractSenses(List<LayoutToken>).
      */
     public List<Sense> extractSenses(String text) throws Exception {
         if (text == null)
             return null;
         if (text.length() == 0)
             return null;
-        List<Sense> senses = null;
-        try {
-            text = text.replace("\n", " ");
-			int sentence = 0;
-			List<OffsetPosition> locationPositions = lexicon.tokenPositionsLocationNames(text);
-			List<OffsetPosition> personTitlePositions = lexicon.tokenPositionsPersonTitle(text);
-			List<OffsetPosition> organisationPositions = lexicon.tokenPositionsOrganisationNames(text);
-			List<OffsetPosition> orgFormPositions = lexicon.tokenPositionsOrgForm(text);
-			int currentPosition = 0;
-            StringTokenizer st = new StringTokenizer(text, TextUtilities.fullPunctuations, true);
-			
-            if (st.countTokens() == 0)
-                return null;
-			
-            List<String> textBlocks = new ArrayList<String>();
-            List<String> tokenizations = new ArrayList<String>();
-			int pos = 0; // current offset
-			List<Integer> positions = new ArrayList<Integer>();
-            while (st.hasMoreTokens()) {
-                String tok = st.nextToken();
-                tokenizations.add(tok);
-                if (!tok.equals(" ")) {
-                	textBlocks.add(tok + "\t<sense>");
-					positions.add(pos);
-            	}
-				pos += tok.length();
-            }
-            StringBuffer ress = new StringBuffer();
-            int posit = 0; // keep track of the position index in the list of positions
-			int currentLocationIndex = 0; // keep track of the position index in the list of unit match offsets 
-			int currentPersonTitleIndex = 0; 
-			int currentOrganisationIndex = 0; 
-			int currentOrgFormIndex = 0; 
-            for (String block : textBlocks) {
-				currentPosition += positions.get(posit);
-				
-				// check if the token is a known NE
-				// do we have a NE at position posit?
-				boolean isLocationToken = false;
-				boolean isPersonTitleToken = false;
-				boolean isOrganisationToken = false;
-				boolean isOrgFormToken = false;
-				if ( (locationPositions != null) && (locationPositions.size() > 0) ) {
-					for(int mm = currentLocationIndex; mm < locationPositions.size(); mm++) {
-						if ( (posit >= locationPositions.get(mm).start) && 
-							 (posit <= locationPositions.get(mm).end) ) {
-							isLocationToken = true;
-							currentLocationIndex = mm;
-							break;
-						}
-						else if (posit < locationPositions.get(mm).start) {
-							isLocationToken = false;
-							break;
-						}
-						else if (posit > locationPositions.get(mm).end) {
-							continue;
-						}
-					}
-				}
-				if ( (personTitlePositions != null) && (personTitlePositions.size() > 0) ) {
-					for(int mm = currentPersonTitleIndex; mm < personTitlePositions.size(); mm++) {
-						if ( (posit >= personTitlePositions.get(mm).start) && 
-							 (posit <= personTitlePositions.get(mm).end) ) {
-							isPersonTitleToken = true;
-							currentPersonTitleIndex = mm;
-							break;
-						}
-						else if (posit < personTitlePositions.get(mm).start) {
-							isPersonTitleToken = false;
-							break;
-						}
-						else if (posit > personTitlePositions.get(mm).end) {
-							continue;
-						}
-					}
-				}
-				if ( (organisationPositions != null) && (organisationPositions.size() > 0) ) {
-					for(int mm = currentOrganisationIndex; mm < organisationPositions.size(); mm++) {
-						if ( (posit >= organisationPositions.get(mm).start) && 
-							 (posit <= organisationPositions.get(mm).end) ) {
-							isOrganisationToken = true;
-							currentOrganisationIndex = mm;
-							break;
-						}
-						else if (posit < organisationPositions.get(mm).start) {
-							isOrganisationToken = false;
-							break;
-						}
-						else if (posit > organisationPositions.get(mm).end) {
-							continue;
-						}
-					}
-				}
-				if ( (orgFormPositions != null) && (orgFormPositions.size() > 0) ) {
-					for(int mm = currentOrgFormIndex; mm < orgFormPositions.size(); mm++) {
-						if ( (posit >= orgFormPositions.get(mm).start) && 
-							 (posit <= orgFormPositions.get(mm).end) ) {
-							isOrgFormToken = true;
-							currentOrgFormIndex = mm;
-							break;
-						}
-						else if (posit < orgFormPositions.get(mm).start) {
-							isOrganisationToken = false;
-							break;
-						}
-						else if (posit > orgFormPositions.get(mm).end) {
-							continue;
-						}
-					}
-				}
-				// default value for named entity feature
-				boolean isNER = false;
-                ress.append(FeaturesVectorNERSense
-                        .addFeatures(block, 
-								isLocationToken, isPersonTitleToken, isOrganisationToken, isOrgFormToken)
-                        .printVector());
-				ress.append("\n");
-                posit++;
-            }
-            ress.append("\n");
-			String res = label(ress.toString());
-//System.out.println(res);
-			List<Pair<String, String>> labeled = GenericTaggerUtils.getTokensAndLabels(res);
+        text = text.replace("\n", " ");
+        List<LayoutToken> tokens = GrobidAnalyzer.getInstance().tokenizeWithLayoutToken(text, 
+            new Language(Language.EN, 1.0));
+        if (tokens.isEmpty())
+            return null;
+        return extractSenses(tokens);
+    }
 
-            senses = resultExtraction(text, labeled, tokenizations);
-        } catch (Exception e) {
-            throw new GrobidException("An exception occured while running Grobid.", e);
+    /**
+     * Extract all occurences of NER senses from a sequence of LayoutToken, e.g. the tokens 
+     * already used for the NER. All the non-whitespace tokens are labelled, without named
+     * entity information. The offsets of the senses are the ones of the tokens.
+     */
+    public List<Sense> extractSenses(List<LayoutToken> tokens) {
+        LexiconPositionsIndexes positionsIndexes = new LexiconPositionsIndexes(lexicon);
+        positionsIndexes.computeIndexes(tokens);
+        int[] tokenIndexes = NERLabelDecoder.getTokenIndexes(tokens);
+
+        List<Sense> senses = new ArrayList<>();
+        if (tokenIndexes.length > 0) {
+            labelRows(tokens, null, 0, tokenIndexes.length, tokenIndexes, positionsIndexes, senses);
         }
         return senses;
     }
 
-
     /**
      * Extract all occurences of NER senses from a text tokenized and with already identified named entities.
      */
@@ -192,11 +101,6 @@ public class SenseTagger extends AbstractParser {
 
 		List<Sense> senses = null;
 
-		List<OffsetPosition> locationPositions = positionsIndexes.getLocalLocationPositions();
-		List<OffsetPosition> personTitlePositions = positionsIndexes.getLocalPersonTitlePositions();
-		List<OffsetPosition> organisationPositions = positionsIndexes.getLocalOrganisationPositions();
-		List<OffsetPosition> orgFormPositions = positionsIndexes.getLocalOrgFormPositions();
-
         try {
 			int sentence = 0;
 			int currentPosition = 0;
@@ -218,91 +122,16 @@ public class SenseTagger extends AbstractParser {
             }
             StringBuffer ress = new StringBuffer();
             int posit = 0; // keep track of the position index in the list of positions
-			int currentLocationIndex = 0; // keep track of the position index in the list of unit match offsets 
-			int currentPersonTitleIndex = 0; 
-			int currentOrganisationIndex = 0; 
-			int currentOrgFormIndex = 0; 
             for (String block : textBlocks) {
 				currentPosition += positions.get(posit);
 				
 				// check if the token is a known NE
 				// do we have a NE at position posit?
-				boolean isLocationToken = false;
-				boolean isPersonTitleToken = false;
-				boolean isOrganisationToken = false;
-				boolean isOrgFormToken = false;
-				if ( (locationPositions != null) && (locationPositions.size() > 0) ) {
-					for(int mm = currentLocationIndex; mm < locationPositions.size(); mm++) {
-						if ( (posit >= locationPositions.get(mm).start) && 
-							 (posit <= locationPositions.get(mm).end) ) {
-							isLocationToken = true;
-							currentLocationIndex = mm;
-							break;
-						}
-						else if (posit < locationPositions.get(mm).start) {
-							isLocationToken = false;
-							break;
-						}
-						else if (posit > locationPositions.get(mm).end) {
-							continue;
-						}
-					}
-				}
-				if ( (personTitlePositions != null) && (personTitlePositions.size() > 0) ) {
-					for(int mm = currentPersonTitleIndex; mm < personTitlePositions.size(); mm++) {
-						if ( (posit >= personTitlePositions.get(mm).start) && 
-							 (posit <= personTitlePositions.get(mm).end) ) {
-							isPersonTitleToken = true;
-							currentPersonTitleIndex = mm;
-							break;
-						}
-						else if (posit < personTitlePositions.get(mm).start) {
-							isPersonTitleToken = false;
-							break;
-						}
-						else if (posit > personTitlePositions.get(mm).end) {
-							continue;
-						}
-					}
-				}
-				if ( (organisationPositions != null) && (organisationPositions.size() > 0) ) {
-					for(int mm = currentOrganisationIndex; mm < organisationPositions.size(); mm++) {
-						if ( (posit >= organisationPositions.get(mm).start) && 
-							 (posit <= organisationPositions.get(mm).end) ) {
-							isOrganisationToken = true;
-							currentOrganisationIndex = mm;
-							break;
-						}
-						else if (posit < organisationPositions.get(mm).start) {
-							isOrganisationToken = false;
-							break;
-						}
-						else if (posit > organisationPositions.get(mm).end) {
-							continue;
-						}
-					}
-				}
-				if ( (orgFormPositions != null) && (orgFormPositions.size() > 0) ) {
-					for(int mm = currentOrgFormIndex; mm < orgFormPositions.size(); mm++) {
-						if ( (posit >= orgFormPositions.get(mm).start) && 
-							 (posit <= orgFormPositions.get(mm).end) ) {
-							isOrgFormToken = true;
-							currentOrgFormIndex = mm;
-							break;
-						}
-						else if (posit < orgFormPositions.get(mm).start) {
-							isOrganisationToken = false;
-							break;
-						}
-						else if (posit > orgFormPositions.get(mm).end) {
-							continue;
-						}
-					}
-				}
+				int lexiconFlags = positionsIndexes.getLexiconFlags(posit);
 
                 ress.append(FeaturesVectorNERSense
                         .addFeatures(block, 
-								isLocationToken, isPersonTitleToken, isOrganisationToken, isOrgFormToken)
+								lexiconFlags)
                         .printVector());
 				ress.append("\n");
                 posit++;
@@ -320,6 +149,129 @@ public class SenseTagger extends AbstractParser {
 	}
 
 
+    /**
+     * Extract the senses of already recognised named entities in a sequence of LayoutToken.
+     * Only windows of tokens around the entities are labelled, with the given number of
+     * context tokens on each side, the overlapping windows being merged. 
+     *
+     * The rows are the non-whitespace tokens, as in the NER feature generation: the NER 
+     * label ids and the lexicon positions are given per row, and tokenIndexes gives the index
+     * of the LayoutToken of a row. The windows are labelled in order and the remaining ones
+     * are skipped once the deadline (System.nanoTime() value) is passed. The senses are
+     * ordered by offset.
+     */
+    public List<Sense> extractSenses(List<LayoutToken> tokens,
+									 int[] labelIds,
+									 int[] tokenIndexes,
+									 LexiconPositionsIndexes positionsIndexes,
+									 int contextTokens,
+									 long deadline) {
+		List<Sense> senses = new ArrayList<>();
+		int nbRows = tokenIndexes.length;
+		int row = 0;
+		while (row < nbRows) {
+			if (labelIds[row] == NERLabelDecoder.OUTSIDE) {
+				row++;
+				continue;
+			}
+			// window around the entity rows, extended as long as another entity is close enough
+			int windowStart = Math.max(0, row - contextTokens);
+			int lastEntityRow = row;
+			for (int r = row + 1; (r < nbRows) && (r <= lastEntityRow + 2 * contextTokens + 1); r++) {
+				if (labelIds[r] != NERLabelDecoder.OUTSIDE)
+					lastEntityRow = r;
+			}
+			int windowEnd = Math.min(nbRows, lastEntityRow + contextTokens + 1);
+
+			if (System.nanoTime() > deadline) {
+				LOGGER.debug("Sense tagging budget exceeded, remaining entities left without sense");
+				break;
+			}
+			labelRows(tokens, labelIds, windowStart, windowEnd, tokenIndexes, positionsIndexes, senses);
+			row = windowEnd;
+		}
+		return senses;
+	}
+
+	/**
+	 * Label the rows [firstRow, endRow[ with the sense model and add the decoded senses. The 
+	 * NER label ids of the rows are used as features if given, otherwise the rows are taken 
+	 * as outside any entity.
+	 */
+	private void labelRows(List<LayoutToken> tokens,
+						   int[] labelIds,
+						   int firstRow,
+						   int endRow,
+						   int[] tokenIndexes,
+						   LexiconPositionsIndexes positionsIndexes,
+						   List<Sense> senses) {
+		StringBuilder ress = new StringBuilder();
+		for (int row = firstRow; row < endRow; row++) {
+			NERLexicon.NER_Type type = (labelIds == null) ? null : NERLabelDecoder.getType(labelIds[row]);
+			FeaturesVectorNERSense.addFeatures(tokens.get(tokenIndexes[row]).getText(), "<sense>", 
+					(type == null) ? "O" : type.getName(), positionsIndexes.getLexiconFlags(row))
+				.printVector(ress);
+			ress.append("\n");
+		}
+		ress.append("\n");
+
+		List<Pair<String, String>> labeled;
+		try {
+			labeled = GenericTaggerUtils.getTokensAndLabels(label(ress.toString()));
+		} catch (Exception e) {
+			throw new GrobidException("An exception occured while running Grobid.", e);
+		}
+		if (labeled.size() != endRow - firstRow) {
+			throw new GrobidException(labeled.size() + " sense labelled tokens instead of the " + 
+				(endRow - firstRow) + " expected ones");
+		}
+
+		Sense currentSense = null;
+		int currentSenseId = NERLexicon.UNKNOWN_SENSE;
+		for (int i = 0; i < labeled.size(); i++) {
+			String originalLabel = labeled.get(i).getRight();
+			String label = originalLabel.startsWith(NERLexicon.START_ENTITY_LABEL_PREFIX) ? 
+				originalLabel.substring(2) : originalLabel;
+			LayoutToken token = tokens.get(tokenIndexes[firstRow + i]);
+			int tokenEnd = token.getOffset() + token.getText().length();
+
+			if (label.equals("O") || label.equals("<other>") || (label.length() <= 1)) {
+				currentSense = null;
+				continue;
+			}
+			// senses are compared by id, labels without description by string
+			int senseId = nerLexicon.getSenseId(label);
+			boolean sameSense = (currentSense != null) && ((senseId != NERLexicon.UNKNOWN_SENSE) ? 
+				(senseId == currentSenseId) : currentSense.getFineSense().equals(label));
+			if (sameSense && !originalLabel.startsWith(NERLexicon.START_ENTITY_LABEL_PREFIX)) {
+				currentSense.setOffsetEnd(tokenEnd);
+			} else {
+				currentSense = newSense(senseId, label);
+				currentSenseId = senseId;
+				currentSense.setOffsetStart(token.getOffset());
+				currentSense.setOffsetEnd(tokenEnd);
+				senses.add(currentSense);
+			}
+		}
+	}
+
+	/**
+	 * New sense of a label, with its description if any. The label is the interned one of 
+	 * the description table when known.
+	 */
+	private Sense newSense(String label) {
+		return newSense(nerLexicon.getSenseId(label), label);
+	}
+
+	private Sense newSense(int senseId, String label) {
+		if (senseId == NERLexicon.UNKNOWN_SENSE)
+			return new Sense(label, label);
+		label = nerLexicon.getSenseLabel(senseId);
+		Sense sense = new Sense(label, label);
+		sense.setDescription(nerLexicon.getDescription(senseId));
+		return sense;
+	}
+
     /**
      * Extract the named entities from a labelled text.
      */
@@ -377,10 +329,7 @@ public class SenseTagger extends AbstractParser {
 						}
 					}
 					if (label.length() > 1) {  
-						currentSense = new Sense(label, label);
-						if (nerLexicon.getDescription(label) != null) {
-							currentSense.setDescription(nerLexicon.getDescription(label));
-						}   
+						currentSense = newSense(label);
 						if ( (text.length()>offset) && (text.charAt(offset) == ' ') ) {	
 							currentSense.setOffsetStart(offset+1);
 						}
@@ -393,10 +342,7 @@ public class SenseTagger extends AbstractParser {
 					if (label.length() > 1) {
 					    if ( (currentSense != null) && (currentSense.getFineSense().equals(label)) ) {
 							if (originalLabel.startsWith("B-")) {
-								currentSense = new Sense(label, label);
-								if (nerLexicon.getDescription(label) != null) {
-									currentSense.setDescription(nerLexicon.getDescription(label));
-								}   
+								currentSense = newSense(label);
 								if ( (text.length()>offset) && (text.charAt(offset) == ' ') ) {	
 									currentSense.setOffsetStart(offset+1);
 								}
@@ -411,10 +357,7 @@ public class SenseTagger extends AbstractParser {
 							// should not be the case, but we add the new entity, for robustness      
 							if (currentSense != null)
 								senses.add(currentSense);
-							currentSense = new Sense(label, label); 
-							if (nerLexicon.getDescription(label) != null) {
-								currentSense.setDescription(nerLexicon.getDescription(label));
-							}
+							currentSense = newSense(label);
 							currentSense.setOffsetStart(offset);
 							currentSense.setOffsetEnd(offset+addedOffset);
 						}
@@ -0,0 +1,86 @@
+package org.grobid.core.engines;
+
+import com.googlecode.clearnlp.engine.EngineGetter;
+import com.googlecode.clearnlp.segmentation.AbstractSegmenter;
+import com.googlecode.clearnlp.tokenization.AbstractTokenizer;
+import org.grobid.core.data.Sentence;
+import org.grobid.core.exceptions.GrobidException;
+import org.grobid.core.utilities.OffsetPosition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sentence segmentation with ClearNLP, the segmenter being built once and reused for all
+ * the texts. The sentences are returned as offsets in the segmented text, a sentence
+ * starting at the end of the previous one.
+ *
+ * The ClearNLP tokenizer and segmenter are not meant to be shared between threads, so a
+ * SentenceSegmenter should be used by one thread at a time.
+ */
+public class SentenceSegmenter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SentenceSegmenter.class);
+
+    public static final String DEFAULT_DICTIONARY_PATH = "data/clearNLP/dictionary-1.3.1.zip";
+
+    private final AbstractSegmenter segmenter;
+
+    public SentenceSegmenter(String language, AbstractTokenizer tokenizer) {
+        segmenter = EngineGetter.getSegmenter(language, tokenizer);
+    }
+
+    /**
+     * Segmenter using a tokenizer loaded from the default ClearNLP dictionary.
+     */
+    public static SentenceSegmenter load(String language) {
+        LOGGER.info("Loading dictionary file for sentence segmentation: " + DEFAULT_DICTIONARY_PATH);
+        try (InputStream dictionary = new FileInputStream(DEFAULT_DICTIONARY_PATH)) {
+            return new SentenceSegmenter(language, EngineGetter.getTokenizer(language, dictionary));
+        } catch (IOException e) {
+            throw new GrobidException("Cannot load the dictionary file for sentence segmentation: " +
+                DEFAULT_DICTIONARY_PATH, e);
+        }
+    }
+
+    public List<Sentence> segment(String text) {
+        List<List<String>> sentences = segmenter.getSentences(new BufferedReader(new StringReader(text)));
+        List<Sentence> results = new ArrayList<>();
+
+        if ((sentences == null) || (sentences.size() == 0)) {
+            // there is some text but not in a state so that a sentence at least can be
+            // identified by the sentence segmenter, so we parse it as a single sentence
+            results.add(sentence(0, text.length()));
+            return results;
+        }
+
+        // the segmenter only gives the tokens, so the sentences are realigned with the text 
+        // by a single forward scan
+        int offset = 0;
+        for (List<String> theSentence : sentences) {
+            int end = offset;
+            for (String token : theSentence) {
+                int position = text.indexOf(token, end);
+                // a token normalised by the tokenizer is not found, it is skipped
+                if (position != -1)
+                    end = position + token.length();
+            }
+            results.add(sentence(offset, end));
+            offset = end;
+        }
+        return results;
+    }
+
+    private static Sentence sentence(int start, int end) {
+        Sentence sentence = new Sentence();
+        sentence.setOffsets(new OffsetPosition(start, end));
+        return sentence;
+    }
+}
@@ -0,0 +1,90 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.layout.LayoutToken;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Split a token sequence into chunks of at most a given number of labelled (non-whitespace)
+ * tokens, to bound the cost of a sequence labelling call. A chunk is cut preferably at the
+ * last paragraph boundary (empty line), then at the last sentence boundary (sentence-ending 
+ * punctuation followed by a whitespace), and only otherwise right before the token 
+ * exceeding the maximum length.
+ *
+ * The chunks are views of the original list, so the entities extracted from a chunk refer
+ * to the original LayoutToken objects, with their offsets and coordinates.
+ */
+public class SequenceChunker {
+
+    private final int maxSequenceLength;
+
+    public SequenceChunker(int maxSequenceLength) {
+        if (maxSequenceLength <= 0)
+            throw new IllegalArgumentException("The maximum sequence length must be positive: " + maxSequenceLength);
+        this.maxSequenceLength = maxSequenceLength;
+    }
+
+    public List<List<LayoutToken>> split(List<LayoutToken> tokens) {
+        List<List<LayoutToken>> chunks = new ArrayList<>();
+        int start = 0;
+        // number of labelled tokens in the current chunk
+        int length = 0;
+        // chunk boundaries (index of the first token after the boundary), -1 if none
+        int lastParagraph = -1;
+        int lastSentence = -1;
+        // text of the last token which is not a space or a tab
+        String previous = null;
+
+        for (int i = 0; i < tokens.size(); i++) {
+            LayoutToken token = tokens.get(i);
+            String text = token.getText();
+            boolean separator = NERParserCommon.isSeparatorToken(token);
+
+            if (!separator) {
+                if (length == maxSequenceLength) {
+                    int cut = (lastParagraph > start) ? lastParagraph : 
+                        (lastSentence > start) ? lastSentence : i;
+                    chunks.add(tokens.subList(start, cut));
+                    start = cut;
+                    length = countLabelledTokens(tokens, cut, i);
+                    lastParagraph = -1;
+                    lastSentence = -1;
+                }
+                length++;
+            } else {
+                if (isNewLine(text) && isNewLine(previous))
+                    lastParagraph = i + 1;
+                else if ((previous != null) && isSentenceEnd(previous))
+                    lastSentence = i + 1;
+            }
+
+            if ((text != null) && !text.equals(" ") && !text.equals("\t") && !text.equals("\u00A0"))
+                previous = text;
+        }
+        if (start < tokens.size())
+            chunks.add(tokens.subList(start, tokens.size()));
+        return chunks;
+    }
+
+    private static int countLabelledTokens(List<LayoutToken> tokens, int from, int to) {
+        int nb = 0;
+        for (int i = from; i < to; i++) {
+            if (!NERParserCommon.isSeparatorToken(tokens.get(i)))
+                nb++;
+        }
+        return nb;
+    }
+
+    private static boolean isNewLine(String text) {
+        return (text != null) && (text.equals("\n") || text.equals("\r"));
+    }
+
+    private static boolean isSentenceEnd(String text) {
+        return text.equals(".") || text.equals("!") || text.equals("?");
+    }
+
+    public int getMaxSequenceLength() {
+        return maxSequenceLength;
+    }
+}
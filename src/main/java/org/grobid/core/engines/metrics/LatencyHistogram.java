@@ -0,0 +1,64 @@
+package org.grobid.core.engines.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, with power of two buckets. Percentiles
+ * are given as the upper bound of their bucket, so within a factor 2.
+ */
+public class LatencyHistogram {
+
+    private static final int NB_BUCKETS = 64;
+
+    // bucket i counts the durations d with 2^(i-1) <= d < 2^i
+    private final AtomicLongArray buckets = new AtomicLongArray(NB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        buckets.incrementAndGet(Math.min(NB_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos)));
+        count.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return total.sum();
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    public double getMeanNanos() {
+        long nb = count.sum();
+        return (nb == 0) ? 0.0 : (double) total.sum() / nb;
+    }
+
+    /**
+     * Upper bound of the bucket containing the given percentile (between 0 and 100), 0 if
+     * nothing has been recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        long nb = count.sum();
+        if (nb == 0)
+            return 0;
+        long rank = (long) Math.ceil(nb * percentile / 100.0);
+        long cumulated = 0;
+        for (int i = 0; i < NB_BUCKETS; i++) {
+            cumulated += buckets.get(i);
+            if ((cumulated >= rank) && (cumulated > 0))
+                return (i == 0) ? 0 : Math.min(1L << Math.min(i, 62), max.get());
+        }
+        return max.get();
+    }
+}
@@ -0,0 +1,58 @@
+package org.grobid.core.engines.metrics;
+
+/**
+ * Measures of the NER processing, by model and by processing stage. The measures are 
+ * taken only if isEnabled() is true, so that a disabled instance (NOOP, the default) costs
+ * a single test per stage.
+ */
+public interface NERMetrics {
+
+    enum Stage {
+        TOKENIZATION,
+        LEXICON_MATCHING,
+        FEATURES,
+        LABELLING,
+        ENTITY_EXTRACTION,
+        SENSE_TAGGING
+    }
+
+    /**
+     * Metrics ignoring all the measures.
+     */
+    NERMetrics NOOP = new NERMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordStage(String model, Stage stage, long nanos) {
+        }
+
+        @Override
+        public void recordSequence(String model, int nbTokens, int nbEntities, long nanos) {
+        }
+    };
+
+    boolean isEnabled();
+
+    /**
+     * Record the duration of a processing stage for a given model.
+     */
+    void recordStage(String model, Stage stage, long nanos);
+
+    /**
+     * Record the processing of a token sequence by a given model: number of tokens, number
+     * of extracted entities and total duration.
+     */
+    void recordSequence(String model, int nbTokens, int nbEntities, long nanos);
+
+    /**
+     * Run a task in the current thread without recording its measures, e.g. a warm-up whose
+     * latencies are not representative. The measures of the other threads are recorded as
+     * usual.
+     */
+    default void runUnrecorded(Runnable task) {
+        task.run();
+    }
+}
@@ -0,0 +1,160 @@
+package org.grobid.core.engines.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local in-memory registry of the NER measures: a latency histogram per model and stage,
+ * and per model the number of processed tokens and entities with the total processing time,
+ * from which the throughputs are derived. The registry is thread-safe and lock-free on
+ * the recording side.
+ */
+public class NERMetricsRegistry implements NERMetrics {
+
+    /**
+     * Measures of a given model.
+     */
+    public static class ModelMetrics {
+        private final LatencyHistogram[] stages = new LatencyHistogram[Stage.values().length];
+        private final LatencyHistogram sequences = new LatencyHistogram();
+        private final LongAdder nbTokens = new LongAdder();
+        private final LongAdder nbEntities = new LongAdder();
+
+        ModelMetrics() {
+            for (int i = 0; i < stages.length; i++) {
+                stages[i] = new LatencyHistogram();
+            }
+        }
+
+        public LatencyHistogram getStage(Stage stage) {
+            return stages[stage.ordinal()];
+        }
+
+        /**
+         * Histogram of the total processing time of the token sequences.
+         */
+        public LatencyHistogram getSequences() {
+            return sequences;
+        }
+
+        public long getNbTokens() {
+            return nbTokens.sum();
+        }
+
+        public long getNbEntities() {
+            return nbEntities.sum();
+        }
+
+        /**
+         * Processed tokens per second of processing time (cumulated over the threads).
+         */
+        public double getTokensPerSecond() {
+            long nanos = sequences.getTotalNanos();
+            return (nanos == 0) ? 0.0 : nbTokens.sum() * 1e9 / nanos;
+        }
+
+        /**
+         * Extracted entities per second of processing time (cumulated over the threads).
+         */
+        public double getEntitiesPerSecond() {
+            long nanos = sequences.getTotalNanos();
+            return (nanos == 0) ? 0.0 : nbEntities.sum() * 1e9 / nanos;
+        }
+    }
+
+    private final ConcurrentMap<String, ModelMetrics> models = new ConcurrentHashMap<>();
+
+    // true in the threads running a task whose measures are not recorded
+    private final ThreadLocal<Boolean> unrecorded = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    @Override
+    public boolean isEnabled() {
+        return !unrecorded.get();
+    }
+
+    private ModelMetrics getOrCreate(String model) {
+        return models.computeIfAbsent(String.valueOf(model), m -> new ModelMetrics());
+    }
+
+    @Override
+    public void recordStage(String model, Stage stage, long nanos) {
+        if (unrecorded.get())
+            return;
+        getOrCreate(model).getStage(stage).record(nanos);
+    }
+
+    @Override
+    public void recordSequence(String model, int nbTokens, int nbEntities, long nanos) {
+        if (unrecorded.get())
+            return;
+        ModelMetrics modelMetrics = getOrCreate(model);
+        modelMetrics.sequences.record(nanos);
+        modelMetrics.nbTokens.add(nbTokens);
+        modelMetrics.nbEntities.add(nbEntities);
+    }
+
+    /**
+     * Measures of a model, null if nothing has been recorded for it.
+     */
+    public ModelMetrics getModelMetrics(String model) {
+        return models.get(model);
+    }
+
+    public Map<String, ModelMetrics> getModelMetrics() {
+        return new TreeMap<>(models);
+    }
+
+    @Override
+    public void runUnrecorded(Runnable task) {
+        boolean previous = unrecorded.get();
+        unrecorded.set(Boolean.TRUE);
+        try {
+            task.run();
+        } finally {
+            unrecorded.set(previous);
+        }
+    }
+
+    public void clear() {
+        models.clear();
+    }
+
+    /**
+     * Text report of the measures, one line per model and stage, durations in milliseconds.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, ModelMetrics> entry : getModelMetrics().entrySet()) {
+            ModelMetrics modelMetrics = entry.getValue();
+            sb.append(entry.getKey())
+                .append(": ").append(modelMetrics.getSequences().getCount()).append(" sequences, ")
+                .append(modelMetrics.getNbTokens()).append(" tokens, ")
+                .append(modelMetrics.getNbEntities()).append(" entities, ")
+                .append(String.format("%.0f tokens/s, %.0f entities/s", 
+                    modelMetrics.getTokensPerSecond(), modelMetrics.getEntitiesPerSecond()))
+                .append("\n");
+            for (Stage stage : Stage.values()) {
+                LatencyHistogram histogram = modelMetrics.getStage(stage);
+                if (histogram.getCount() == 0)
+                    continue;
+                sb.append("\t").append(stage.name().toLowerCase())
+                    .append(String.format(": count=%d, mean=%.3f, p50<=%.3f, p99<=%.3f, max=%.3f", 
+                        histogram.getCount(),
+                        histogram.getMeanNanos() / 1e6,
+                        histogram.getPercentileNanos(50) / 1e6,
+                        histogram.getPercentileNanos(99) / 1e6,
+                        histogram.getMaxNanos() / 1e6))
+                    .append("\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+}
@@ -1,5 +1,6 @@
 package org.grobid.core.features;
 
+import org.grobid.core.lexicon.LexiconPositionsIndexes;
 import org.grobid.core.utilities.TextUtilities;
 
 import java.util.StringTokenizer;
@@ -174,6 +175,121 @@ public class FeaturesVectorNER {
         return res.toString();
     }
 
+    // true if the lowercasing of the default locale is the usual one for ASCII letters, 
+    // e.g. not the case for Turkish and its dotless i
+    private static final boolean ASCII_LOWERCASE = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toLowerCase()
+            .equals("abcdefghijklmnopqrstuvwxyz");
+
+    /**
+     * Streaming version of printVector(): the vector is appended to the given builder
+     * without creating intermediary strings. The output is identical to printVector().
+     * The builder is typically owned by the calling thread and reused across tokens
+     * and sequences. Return false and append nothing if the vector has no token string.
+     */
+    public boolean printVector(StringBuilder res) {
+        if ((string == null) || (string.length() == 0))
+            return false;
+
+        final int length = string.length();
+
+        // token string (1)
+        res.append(string);
+
+        // lowercase string
+        res.append(' ');
+        appendLowerCase(res, string);
+
+        //prefix
+        for (int n = 1; n <= 5; n++) {
+            res.append(' ').append(string, 0, Math.min(n, length));
+        }
+
+        //suffix
+        for (int n = 1; n <= 5; n++) {
+            res.append(' ').append(string, length - Math.min(n, length), length);
+        }
+
+        // capitalisation (1)
+        if (digit.equals("ALLDIGIT"))
+            res.append(" NOCAPS");
+        else
+            res.append(' ').append(capitalisation);
+
+        // digit information (1)
+        res.append(' ').append(digit);
+
+        // lexical information (7)
+        appendBoolean(res, lastName);
+        appendBoolean(res, commonName);
+        appendBoolean(res, firstName);
+        appendBoolean(res, cityName);
+        appendBoolean(res, countryName);
+        appendBoolean(res, year);
+        appendBoolean(res, month);
+
+        // lexicon features (4)
+        appendBoolean(res, isLocationToken);
+        appendBoolean(res, isPersonTitleToken);
+        appendBoolean(res, isOrganisationToken);
+        appendBoolean(res, isOrgFormToken);
+
+        // word shape (1)
+        res.append(' ').append(wordShape);
+
+        // word shape trimmed (1)
+        res.append(' ').append(wordShapeTrimmed);
+
+        // label - for training data (1)
+        if (label != null)
+            res.append(' ').append(label);
+        else
+            res.append(" 0");
+
+        return true;
+    }
+
+    private static void appendBoolean(StringBuilder res, boolean value) {
+        res.append(value ? " 1" : " 0");
+    }
+
+    /**
+     * Append the lowercase form of a string, as given by String.toLowerCase(). Pure ASCII
+     * strings are lowercased char by char, the other ones fall back to String.toLowerCase()
+     * to preserve its locale and special casing rules.
+     */
+    private static void appendLowerCase(StringBuilder res, String string) {
+        if (ASCII_LOWERCASE) {
+            final int length = string.length();
+            int i = 0;
+            for (; i < length; i++) {
+                if (string.charAt(i) >= 128)
+                    break;
+            }
+            if (i == length) {
+                for (i = 0; i < length; i++) {
+                    char c = string.charAt(i);
+                    if ((c >= 'A') && (c <= 'Z'))
+                        c = (char) (c + ('a' - 'A'));
+                    res.append(c);
+                }
+                return;
+            }
+        }
+        res.append(string.toLowerCase());
+    }
+
+    /**
+     * Add the features for the NER model, the lexicon membership of the token being given 
+     * by its LexiconPositionsIndexes flags.
+     */
+    static public FeaturesVectorNER addFeaturesNER(String line, int lexiconFlags) {
+        return addFeaturesNER(line,
+                (lexiconFlags & LexiconPositionsIndexes.LOCATION) != 0,
+                (lexiconFlags & LexiconPositionsIndexes.PERSON_TITLE) != 0,
+                (lexiconFlags & LexiconPositionsIndexes.ORGANISATION) != 0,
+                (lexiconFlags & LexiconPositionsIndexes.ORG_FORM) != 0);
+    }
+
     /**
      * Add the features for the NER model.
      */
@@ -1,5 +1,6 @@
 package org.grobid.core.features;
 
+import org.grobid.core.lexicon.LexiconPositionsIndexes;
 import org.grobid.core.utilities.TextUtilities;
 
 import java.util.StringTokenizer;
@@ -53,39 +54,48 @@ public class FeaturesVectorNERSense {
     }
 
     public String printVector() {
-        if (string == null) return null;
-        if (string.length() == 0) return null;
-        StringBuffer res = new StringBuffer();
+        StringBuilder res = new StringBuilder();
+        return printVector(res) ? res.toString() : null;
+    }
+
+    /**
+     * Version of printVector() appending the vector to the given builder, so that the 
+     * vectors of a sequence are written one after the other without intermediary strings.
+     * Return false and append nothing if the vector has no token string.
+     */
+    public boolean printVector(StringBuilder res) {
+        if ((string == null) || (string.length() == 0))
+            return false;
 
         // token string (1)
         res.append(string);
 
         // lowercase string
-        res.append(" " + string.toLowerCase());
+        res.append(' ').append(string.toLowerCase());
 
         //prefix
-        res.append(" " + TextUtilities.prefix(string, 1));
-        res.append(" " + TextUtilities.prefix(string, 2));
-        res.append(" " + TextUtilities.prefix(string, 3));
-        res.append(" " + TextUtilities.prefix(string, 4));
-        res.append(" " + TextUtilities.prefix(string, 5));
+        res.append(' ').append(TextUtilities.prefix(string, 1));
+        res.append(' ').append(TextUtilities.prefix(string, 2));
+        res.append(' ').append(TextUtilities.prefix(string, 3));
+        res.append(' ').append(TextUtilities.prefix(string, 4));
+        res.append(' ').append(TextUtilities.prefix(string, 5));
 
         //suffix
-        res.append(" " + TextUtilities.suffix(string, 1));
+        res.append(' ').append(TextUtilities.suffix(string, 1));
 
-        res.append(" " + TextUtilities.suffix(string, 2));
-        res.append(" " + TextUtilities.suffix(string, 3));
-        res.append(" " + TextUtilities.suffix(string, 4));
-        res.append(" " + TextUtilities.suffix(string, 5));
+        res.append(' ').append(TextUtilities.suffix(string, 2));
+        res.append(' ').append(TextUtilities.suffix(string, 3));
+        res.append(' ').append(TextUtilities.suffix(string, 4));
+        res.append(' ').append(TextUtilities.suffix(string, 5));
 		
         // capitalisation (1)
         if (digit.equals("ALLDIGIT"))
             res.append(" NOCAPS");
         else
-            res.append(" " + capitalisation);
+            res.append(' ').append(capitalisation);
 
         // digit information (1)
-        res.append(" " + digit);
+        res.append(' ').append(digit);
 
         // character information (1)
         /*if (singleChar)
@@ -94,7 +104,7 @@ public class FeaturesVectorNERSense {
             res.append(" 0"); */
 
         // punctuation information (1)
-        //res.append(" " + punctType); // in case the token is a punctuation (NO otherwise)
+        //res.append(' ').append(punctType); // in case the token is a punctuation (NO otherwise)
 
 		// lexical information (7)
         if (lastName)
@@ -158,16 +168,16 @@ public class FeaturesVectorNERSense {
             res.append(" 0");
 
         // token length (1)
-        //res.append(" " + string.length()); // /
+        //res.append(' ').append(string.length()); // /
 
 		// shadow number (1)
-		//res.append(" " + shadowNumber); // /
+		//res.append(' ').append(shadowNumber); // /
 		
 		// word shape (1)
-		res.append(" " + wordShape);
+		res.append(' ').append(wordShape);
 		
 		// word shape trimmed (1)
-		res.append(" " + wordShapeTrimmed);
+		res.append(' ').append(wordShapeTrimmed);
 		
 		// indicate of the token is part of a named entity according to a NER (1)
 		if (isNER)
@@ -176,17 +186,29 @@ public class FeaturesVectorNERSense {
             res.append(" 0");
 
 		if (nerType != null) 
-			res.append(" " + nerType);
+			res.append(' ').append(nerType);
 		else 
 			res.append(" O");
 		
         // label - for training data (1)
         if (label != null)
-            res.append(" " + label + "");
+            res.append(' ').append(label);
         else
             res.append(" 0");
 
-        return res.toString();
+        return true;
+    }
+
+    /**
+     * Add the features for the sense model, the lexicon membership of the token being given 
+     * by its LexiconPositionsIndexes flags.
+     */
+    static public FeaturesVectorNERSense addFeatures(String line, int lexiconFlags) {
+        return addFeatures(line,
+                (lexiconFlags & LexiconPositionsIndexes.LOCATION) != 0,
+                (lexiconFlags & LexiconPositionsIndexes.PERSON_TITLE) != 0,
+                (lexiconFlags & LexiconPositionsIndexes.ORGANISATION) != 0,
+                (lexiconFlags & LexiconPositionsIndexes.ORG_FORM) != 0);
     }
 
     /**
@@ -197,126 +219,149 @@ public class FeaturesVectorNERSense {
 												   boolean isPersonTitleToken, 
 												   boolean isOrganisationToken, 
 												   boolean isOrgFormToken) {
+        StringTokenizer st = new StringTokenizer(line, "\t ");
+        if (!st.hasMoreTokens())
+            return new FeaturesVectorNERSense();
+
+        String word = st.nextToken();
+        String label = "O";
+        String nerType = "O";
+        if (st.hasMoreTokens())
+            label = st.nextToken();
+        if (st.hasMoreTokens())
+            nerType = st.nextToken();
+        return addFeatures(word, label, nerType, 
+            isLocationToken, isPersonTitleToken, isOrganisationToken, isOrgFormToken);
+    }
+
+    /**
+     * Add the features for the sense model of a token given with its label and NER label
+     * (possibly prefixed by B- or I-), without the tab separated line of the other methods.
+     */
+    static public FeaturesVectorNERSense addFeatures(String word, String label, String nerType, int lexiconFlags) {
+        return addFeatures(word, label, nerType,
+                (lexiconFlags & LexiconPositionsIndexes.LOCATION) != 0,
+                (lexiconFlags & LexiconPositionsIndexes.PERSON_TITLE) != 0,
+                (lexiconFlags & LexiconPositionsIndexes.ORGANISATION) != 0,
+                (lexiconFlags & LexiconPositionsIndexes.ORG_FORM) != 0);
+    }
+
+    static private FeaturesVectorNERSense addFeatures(String word,
+                                                      String label,
+                                                      String nerType,
+                                                      boolean isLocationToken,
+                                                      boolean isPersonTitleToken,
+                                                      boolean isOrganisationToken,
+                                                      boolean isOrgFormToken) {
         FeatureFactory featureFactory = FeatureFactory.getInstance();
 
         FeaturesVectorNERSense featuresVector = new FeaturesVectorNERSense();
-        StringTokenizer st = new StringTokenizer(line, "\t ");
-        if (st.hasMoreTokens()) {
-            String word = st.nextToken();
-            String label = "O";
-			String nerType = "O";
-            
-			if (st.hasMoreTokens())
-                label = st.nextToken();
-
-			if (st.hasMoreTokens()) {
-                nerType = st.nextToken();
-				if (nerType.startsWith("B-") || nerType.startsWith("I-")) {
-					nerType = nerType.substring(2,nerType.length());
-				}
-			}
-			
-            featuresVector.string = word;
-            featuresVector.label = label;
-
-            if (word.length() == 1) {
-                featuresVector.singleChar = true;
-            }
-
-            if (featureFactory.test_all_capital(word))
-                featuresVector.capitalisation = "ALLCAPS";
-            else if (featureFactory.test_first_capital(word))
-                featuresVector.capitalisation = "INITCAP";
-            else
-                featuresVector.capitalisation = "NOCAPS";
-
-            if (featureFactory.test_number(word))
-                featuresVector.digit = "ALLDIGIT";
-            else if (featureFactory.test_digit(word))
-                featuresVector.digit = "CONTAINDIGIT";
-            else
-                featuresVector.digit = "NODIGIT";
-
-            Matcher m0 = featureFactory.isPunct.matcher(word);
-            if (m0.find()) {
-                featuresVector.punctType = "PUNCT";
-            }
-            if ((word.equals("(")) | (word.equals("["))) {
-                featuresVector.punctType = "OPENBRACKET";
-            } else if ((word.equals(")")) | (word.equals("]"))) {
-                featuresVector.punctType = "ENDBRACKET";
-            } else if (word.equals(".")) {
-                featuresVector.punctType = "DOT";
-            } else if (word.equals(",")) {
-                featuresVector.punctType = "COMMA";
-            } else if (word.equals("-")) {
-                featuresVector.punctType = "HYPHEN";
-            } else if (word.equals("\"") | word.equals("\'") | word.equals("`")) {
-                featuresVector.punctType = "QUOTE";
-            }
-
-            if (featuresVector.capitalisation == null)
-                featuresVector.capitalisation = "NOCAPS";
-
-            if (featuresVector.digit == null)
-                featuresVector.digit = "NODIGIT";
-
-            if (featuresVector.punctType == null)
-                featuresVector.punctType = "NOPUNCT";
-
-			Matcher m2 = featureFactory.year.matcher(word);
-            if (m2.find()) {
-                featuresVector.year = true;
-            }
-
-			if (featureFactory.test_common(word)) {
-                featuresVector.commonName = true;
-            }
-
-			if (featureFactory.test_first_names(word)) {
-                featuresVector.firstName = true;
-            }
-
-            if (featureFactory.test_last_names(word)) {
-                featuresVector.lastName = true;
-            }
-
-            if (featureFactory.test_month(word)) {
-                featuresVector.month = true;
-            }
-
-			if (featureFactory.test_city(word)) {
-                featuresVector.cityName = true;
-            }
-
-			if (featureFactory.test_country(word)) {
-                featuresVector.countryName = true;
-            }
-
-			featuresVector.isLocationToken = isLocationToken;
-			
-			featuresVector.isPersonTitleToken = isPersonTitleToken;
-			
-			featuresVector.isOrganisationToken = isOrganisationToken;
-			
-			featuresVector.isOrgFormToken = isOrgFormToken;
+		if (nerType == null) {
+			nerType = "O";
+		} else if (nerType.startsWith("B-") || nerType.startsWith("I-")) {
+			nerType = nerType.substring(2,nerType.length());
+		}
+		
+        featuresVector.string = word;
+        featuresVector.label = label;
 
-			featuresVector.shadowNumber = TextUtilities.shadowNumbers(word);
-			
-			featuresVector.wordShape = TextUtilities.wordShape(word);
-			
-			featuresVector.wordShapeTrimmed = TextUtilities.wordShapeTrimmed(word);
-			
-			if (nerType.equals("other") || nerType.equals("O"))
-				featuresVector.isNER = false;
-			else 
-				featuresVector.isNER = true;
-				
-			if (nerType.equals("other") || nerType.equals("O"))
-				featuresVector.nerType = "O";
-			else 
-				featuresVector.nerType = nerType;	
+        if (word.length() == 1) {
+            featuresVector.singleChar = true;
+        }
+
+        if (featureFactory.test_all_capital(word))
+            featuresVector.capitalisation = "ALLCAPS";
+        else if (featureFactory.test_first_capital(word))
+            featuresVector.capitalisation = "INITCAP";
+        else
+            featuresVector.capitalisation = "NOCAPS";
+
+        if (featureFactory.test_number(word))
+            featuresVector.digit = "ALLDIGIT";
+        else if (featureFactory.test_digit(word))
+            featuresVector.digit = "CONTAINDIGIT";
+        else
+            featuresVector.digit = "NODIGIT";
+
+        Matcher m0 = featureFactory.isPunct.matcher(word);
+        if (m0.find()) {
+            featuresVector.punctType = "PUNCT";
         }
+        if ((word.equals("(")) | (word.equals("["))) {
+            featuresVector.punctType = "OPENBRACKET";
+        } else if ((word.equals(")")) | (word.equals("]"))) {
+            featuresVector.punctType = "ENDBRACKET";
+        } else if (word.equals(".")) {
+            featuresVector.punctType = "DOT";
+        } else if (word.equals(",")) {
+            featuresVector.punctType = "COMMA";
+        } else if (word.equals("-")) {
+            featuresVector.punctType = "HYPHEN";
+        } else if (word.equals("\"") | word.equals("\'") | word.equals("`")) {
+            featuresVector.punctType = "QUOTE";
+        }
+
+        if (featuresVector.capitalisation == null)
+            featuresVector.capitalisation = "NOCAPS";
+
+        if (featuresVector.digit == null)
+            featuresVector.digit = "NODIGIT";
+
+        if (featuresVector.punctType == null)
+            featuresVector.punctType = "NOPUNCT";
+
+		Matcher m2 = featureFactory.year.matcher(word);
+        if (m2.find()) {
+            featuresVector.year = true;
+        }
+
+		if (featureFactory.test_common(word)) {
+            featuresVector.commonName = true;
+        }
+
+		if (featureFactory.test_first_names(word)) {
+            featuresVector.firstName = true;
+        }
+
+        if (featureFactory.test_last_names(word)) {
+            featuresVector.lastName = true;
+        }
+
+        if (featureFactory.test_month(word)) {
+            featuresVector.month = true;
+        }
+
+		if (featureFactory.test_city(word)) {
+            featuresVector.cityName = true;
+        }
+
+		if (featureFactory.test_country(word)) {
+            featuresVector.countryName = true;
+        }
+
+		featuresVector.isLocationToken = isLocationToken;
+		
+		featuresVector.isPersonTitleToken = isPersonTitleToken;
+		
+		featuresVector.isOrganisationToken = isOrganisationToken;
+		
+		featuresVector.isOrgFormToken = isOrgFormToken;
+
+		featuresVector.shadowNumber = TextUtilities.shadowNumbers(word);
+		
+		featuresVector.wordShape = TextUtilities.wordShape(word);
+		
+		featuresVector.wordShapeTrimmed = TextUtilities.wordShapeTrimmed(word);
+		
+		if (nerType.equals("other") || nerType.equals("O"))
+			featuresVector.isNER = false;
+		else 
+			featuresVector.isNER = true;
+			
+		if (nerType.equals("other") || nerType.equals("O"))
+			featuresVector.nerType = "O";
+		else 
+			featuresVector.nerType = nerType;	
 
         return featuresVector;
     }
@@ -12,30 +12,167 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 import static org.apache.commons.lang3.StringUtils.trim;
 
+/**
+ * Positions of the tokens matching the NER lexicons (locations, person titles, organisations
+ * and organisation forms) in a token sequence.
+ *
+ * Besides the lists of matched position intervals, a per-token array of lexicon flags is
+ * maintained so that the lexicon membership of a given token position is obtained in
+ * constant time.
+ *
+ * The matching is done by default with the grobid Lexicon, one scan per lexicon. When a
+ * MultiLexiconMatcher is given, the four lexicons are matched in a single pass.
+ */
 public class LexiconPositionsIndexes {
 
+    // lexicon flags of a token position
+    public static final int LOCATION = 1;
+    public static final int PERSON_TITLE = 1 << 1;
+    public static final int ORGANISATION = 1 << 2;
+    public static final int ORG_FORM = 1 << 3;
+
+    private static final byte[] NO_FLAGS = new byte[0];
+
     private Lexicon lexicon;
+    private MultiLexiconMatcher lexiconMatcher = null;
 
     private List<OffsetPosition> localLocationPositions = new ArrayList<OffsetPosition>();
     private List<OffsetPosition> localPersonTitlePositions = new ArrayList<OffsetPosition>();
     private List<OffsetPosition> localOrganisationPositions = new ArrayList<OffsetPosition>();
     private List<OffsetPosition> localOrgFormPositions = new ArrayList<OffsetPosition>();
 
+    // lexicon flags indexed by token position, null when they need to be recomputed 
+    // from the position lists
+    private byte[] tokenFlags = NO_FLAGS;
+
     public LexiconPositionsIndexes(Lexicon lexicon) {
         this.lexicon = lexicon;
     }
 
+    /**
+     * Indexes computed with the given single-pass matcher, or with the grobid Lexicon if 
+     * the matcher is null.
+     */
+    public LexiconPositionsIndexes(Lexicon lexicon, MultiLexiconMatcher lexiconMatcher) {
+        this.lexicon = lexicon;
+        this.lexiconMatcher = lexiconMatcher;
+    }
+
+    /**
+     * Indexes of already computed position lists, e.g. from the Lexicon methods on a text. 
+     * The token flags are computed once from the lists at the first lookup, so that the 
+     * lexicon membership of each token is then obtained in constant time without scanning
+     * the lists.
+     */
+    public static LexiconPositionsIndexes fromPositions(List<OffsetPosition> locationPositions,
+                                                        List<OffsetPosition> personTitlePositions,
+                                                        List<OffsetPosition> organisationPositions,
+                                                        List<OffsetPosition> orgFormPositions) {
+        LexiconPositionsIndexes indexes = new LexiconPositionsIndexes(null);
+        indexes.localLocationPositions = locationPositions;
+        indexes.localPersonTitlePositions = personTitlePositions;
+        indexes.localOrganisationPositions = organisationPositions;
+        indexes.localOrgFormPositions = orgFormPositions;
+        indexes.tokenFlags = null;
+        return indexes;
+    }
+
     public void computeIndexes(List<LayoutToken> tokens) {
+        if (lexiconMatcher != null) {
+            lexiconMatcher.computeIndexes(tokens, this);
+            return;
+        }
         localLocationPositions = lexicon.tokenPositionsLocationNames(tokens);
         localPersonTitlePositions = lexicon.tokenPositionsPersonTitle(tokens);
         localOrganisationPositions = lexicon.tokenPositionsOrganisationNames(tokens);
         localOrgFormPositions = lexicon.tokenPositionsOrgForm(tokens);
+        tokenFlags = null;
+    }
+
+    /**
+     * Set the results of a single-pass matching, the token flags being already computed.
+     */
+    void setMatches(List<OffsetPosition> locationPositions,
+                    List<OffsetPosition> personTitlePositions,
+                    List<OffsetPosition> organisationPositions,
+                    List<OffsetPosition> orgFormPositions,
+                    byte[] flags) {
+        localLocationPositions = locationPositions;
+        localPersonTitlePositions = personTitlePositions;
+        localOrganisationPositions = organisationPositions;
+        localOrgFormPositions = orgFormPositions;
+        tokenFlags = flags;
+    }
+
+    /**
+     * Return the lexicon flags (combination of LOCATION, PERSON_TITLE, ORGANISATION and
+     * ORG_FORM) of a token position, 0 if the token does not belong to any lexicon.
+     */
+    public int getLexiconFlags(int position) {
+        byte[] flags = getTokenFlags();
+        if ((position < 0) || (position >= flags.length))
+            return 0;
+        return flags[position];
+    }
+
+    public boolean isLocationToken(int position) {
+        return (getLexiconFlags(position) & LOCATION) != 0;
+    }
+
+    public boolean isPersonTitleToken(int position) {
+        return (getLexiconFlags(position) & PERSON_TITLE) != 0;
+    }
+
+    public boolean isOrganisationToken(int position) {
+        return (getLexiconFlags(position) & ORGANISATION) != 0;
+    }
+
+    public boolean isOrgFormToken(int position) {
+        return (getLexiconFlags(position) & ORG_FORM) != 0;
+    }
+
+    private byte[] getTokenFlags() {
+        if (tokenFlags == null) {
+            int size = 0;
+            size = Math.max(size, maxEnd(localLocationPositions) + 1);
+            size = Math.max(size, maxEnd(localPersonTitlePositions) + 1);
+            size = Math.max(size, maxEnd(localOrganisationPositions) + 1);
+            size = Math.max(size, maxEnd(localOrgFormPositions) + 1);
+
+            byte[] flags = (size == 0) ? NO_FLAGS : new byte[size];
+            setFlags(flags, localLocationPositions, LOCATION);
+            setFlags(flags, localPersonTitlePositions, PERSON_TITLE);
+            setFlags(flags, localOrganisationPositions, ORGANISATION);
+            setFlags(flags, localOrgFormPositions, ORG_FORM);
+            tokenFlags = flags;
+        }
+        return tokenFlags;
+    }
+
+    private static int maxEnd(List<OffsetPosition> positions) {
+        int max = -1;
+        if (positions != null) {
+            for (OffsetPosition position : positions) {
+                max = Math.max(max, position.end);
+            }
+        }
+        return max;
+    }
+
+    private static void setFlags(byte[] flags, List<OffsetPosition> positions, int flag) {
+        if (positions == null)
+            return;
+        for (OffsetPosition position : positions) {
+            for (int i = Math.max(position.start, 0); i <= position.end; i++) {
+                flags[i] |= flag;
+            }
+        }
     }
 
     /**
      * return true if the token position are within the boundaries of a lexicon token.
-     * It assumes the scan is done incrementally.
-     * It updates the currentPosition to avoid iterating through the lexicon positions.
+     * The list of positions is scanned from its beginning at each call, so prefer the 
+     * constant time lookups of a LexiconPositionsIndexes instance, e.g. isLocationToken().
      */
     public static boolean isTokenInLexicon(List<OffsetPosition> listPositionInLexicon, int currentPosition) {
         if (CollectionUtils.isNotEmpty(listPositionInLexicon)) {
@@ -59,6 +196,7 @@ public class LexiconPositionsIndexes {
 
     public void setLocalLocationPositions(List<OffsetPosition> localLocationPositions) {
         this.localLocationPositions = localLocationPositions;
+        tokenFlags = null;
     }
 
     public List<OffsetPosition> getLocalPersonTitlePositions() {
@@ -67,6 +205,7 @@ public class LexiconPositionsIndexes {
 
     public void setLocalPersonTitlePositions(List<OffsetPosition> localPersonTitlePositions) {
         this.localPersonTitlePositions = localPersonTitlePositions;
+        tokenFlags = null;
     }
 
     public List<OffsetPosition> getLocalOrganisationPositions() {
@@ -75,6 +214,7 @@ public class LexiconPositionsIndexes {
 
     public void setLocalOrganisationPositions(List<OffsetPosition> localOrganisationPositions) {
         this.localOrganisationPositions = localOrganisationPositions;
+        tokenFlags = null;
     }
 
     public List<OffsetPosition> getLocalOrgFormPositions() {
@@ -83,6 +223,7 @@ public class LexiconPositionsIndexes {
 
     public void setLocalOrgFormPositions(List<OffsetPosition> localOrgFormPositions) {
         this.localOrgFormPositions = localOrgFormPositions;
+        tokenFlags = null;
     }
 
     /**
@@ -0,0 +1,313 @@
+package org.grobid.core.lexicon;
+
+import org.grobid.core.analyzers.GrobidAnalyzer;
+import org.grobid.core.exceptions.GrobidResourceException;
+import org.grobid.core.lang.Language;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.GrobidProperties;
+import org.grobid.core.utilities.OffsetPosition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token-level Aho-Corasick automaton built once from the four NER gazetteers (locations,
+ * person titles, organisations and organisation forms). A token sequence is matched against
+ * all the lexicons in a single pass, instead of the four separate scans of the grobid
+ * Lexicon.tokenPositions* methods.
+ *
+ * Matching is case insensitive. Token positions are counted over the non-whitespace tokens,
+ * like the positions used for the feature generation in NERParserCommon. For each lexicon,
+ * the resulting position lists keep the longest match starting at a given position and the
+ * matches do not overlap, as the grobid FastMatcher. The token flags are set from these
+ * leftmost-longest intervals only, so that they are the same as the flags obtained from the
+ * grobid Lexicon position lists and the features do not change for the trained models.
+ *
+ * The gazetteer files are given by the lexicons entry of grobid-ner.yaml, relative to the
+ * lexicon directory of grobid-home.
+ *
+ * Once compiled, the automaton is read-only and can be shared by several threads.
+ */
+public class MultiLexiconMatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiLexiconMatcher.class);
+
+    // lexicon flags in the order of the positions lists
+    private static final int[] LEXICON_FLAGS = {
+            LexiconPositionsIndexes.LOCATION,
+            LexiconPositionsIndexes.PERSON_TITLE,
+            LexiconPositionsIndexes.ORGANISATION,
+            LexiconPositionsIndexes.ORG_FORM
+    };
+
+    // lexicon flag of each key of the lexicons configuration
+    private static final Map<String, Integer> LEXICON_KEYS = new HashMap<>();
+
+    static {
+        LEXICON_KEYS.put("location", LexiconPositionsIndexes.LOCATION);
+        LEXICON_KEYS.put("personTitle", LexiconPositionsIndexes.PERSON_TITLE);
+        LEXICON_KEYS.put("organisation", LexiconPositionsIndexes.ORGANISATION);
+        LEXICON_KEYS.put("orgForm", LexiconPositionsIndexes.ORG_FORM);
+    }
+
+    // matchers already built, by gazetteer configuration
+    private static final Map<Map<String, List<String>>, MultiLexiconMatcher> instances = new ConcurrentHashMap<>();
+
+    private static class Node {
+        Map<String, Node> children;
+        // failure transition, longest proper suffix of the node path present in the automaton
+        Node fail;
+        // nearest node in the failure chain ending a term, if any
+        Node output;
+        // lexicon flags of the terms ending at this node
+        int flags;
+        // number of tokens of the node path
+        int depth;
+
+        Node child(String token) {
+            return (children == null) ? null : children.get(token);
+        }
+    }
+
+    private final Node root = new Node();
+    private boolean compiled = false;
+    private int nbTerms = 0;
+
+    public MultiLexiconMatcher() {
+    }
+
+    /**
+     * Return the matcher built from the given gazetteer files, by lexicon (location, 
+     * personTitle, organisation, orgForm), see the lexicons entry of grobid-ner.yaml. 
+     * Relative paths are resolved against the lexicon directory of grobid-home, the one 
+     * of the grobid Lexicon. The matcher is built once per configuration.
+     */
+    public static MultiLexiconMatcher getInstance(Map<String, List<String>> lexicons) {
+        if ((lexicons == null) || lexicons.isEmpty())
+            throw new GrobidResourceException("No gazetteer configured for the combined lexicon matcher");
+        return instances.computeIfAbsent(lexicons, key -> {
+            MultiLexiconMatcher matcher = new MultiLexiconMatcher();
+            matcher.loadLexicons(new File(GrobidProperties.getGrobidHomePath(), "lexicon"), key);
+            matcher.compile();
+            return matcher;
+        });
+    }
+
+    private void loadLexicons(File lexiconDir, Map<String, List<String>> lexicons) {
+        for (Map.Entry<String, List<String>> lexicon : lexicons.entrySet()) {
+            Integer lexiconFlag = LEXICON_KEYS.get(lexicon.getKey());
+            if (lexiconFlag == null)
+                throw new GrobidResourceException("Unknown lexicon " + lexicon.getKey() + 
+                    ", expected one of " + LEXICON_KEYS.keySet());
+            for (String path : lexicon.getValue()) {
+                File file = new File(path);
+                loadTerms(file.isAbsolute() ? file : new File(lexiconDir, path), lexiconFlag);
+            }
+        }
+        LOGGER.info(nbTerms + " lexicon terms loaded in the combined lexicon matcher");
+    }
+
+    /**
+     * Load the terms of a gazetteer file, one term per line, for the given lexicon flag.
+     * The terms are tokenized with the Grobid analyzer.
+     */
+    public int loadTerms(File file, int lexiconFlag) {
+        if (!file.exists()) {
+            LOGGER.warn("Lexicon file not found, skipped: " + file.getPath());
+            return 0;
+        }
+        int nb = 0;
+        GrobidAnalyzer analyzer = GrobidAnalyzer.getInstance();
+        Language language = new Language(Language.EN, 1.0);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if ((line.length() == 0) || line.startsWith("#"))
+                    continue;
+                if (addTerm(analyzer.tokenize(line, language), lexiconFlag))
+                    nb++;
+            }
+        } catch (IOException e) {
+            throw new GrobidResourceException("Error reading lexicon file " + file.getPath(), e);
+        }
+        return nb;
+    }
+
+    /**
+     * Add a tokenized term for the given lexicon flag, whitespace tokens are ignored.
+     * Return false if the term has no token.
+     */
+    public boolean addTerm(List<String> tokens, int lexiconFlag) {
+        if (compiled)
+            throw new IllegalStateException("Terms cannot be added to a compiled lexicon matcher");
+
+        Node node = root;
+        for (String token : tokens) {
+            if (isSeparator(token))
+                continue;
+            String key = token.toLowerCase();
+            Node next = node.child(key);
+            if (next == null) {
+                next = new Node();
+                next.depth = node.depth + 1;
+                if (node.children == null)
+                    node.children = new HashMap<>(4);
+                node.children.put(key, next);
+            }
+            node = next;
+        }
+        if (node == root)
+            return false;
+
+        node.flags |= lexiconFlag;
+        nbTerms++;
+        return true;
+    }
+
+    /**
+     * Build the failure and output transitions of the automaton. No term can be added
+     * afterwards.
+     */
+    public void compile() {
+        Queue<Node> queue = new ArrayDeque<>();
+        root.fail = root;
+        if (root.children != null) {
+            for (Node child : root.children.values()) {
+                child.fail = root;
+                queue.add(child);
+            }
+        }
+        // breadth-first, so that the failure node of a node is always processed before it
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            node.output = (node.fail.flags != 0) ? node.fail : node.fail.output;
+            if (node.children == null)
+                continue;
+            for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+                Node child = entry.getValue();
+                Node fail = node.fail;
+                while ((fail != root) && (fail.child(entry.getKey()) == null)) {
+                    fail = fail.fail;
+                }
+                Node target = fail.child(entry.getKey());
+                child.fail = (target != null) ? target : root;
+                queue.add(child);
+            }
+        }
+        compiled = true;
+    }
+
+    public int getNbTerms() {
+        return nbTerms;
+    }
+
+    /**
+     * Match a token sequence against all the lexicons in one pass and set the resulting
+     * positions and token flags in the given indexes.
+     */
+    public void computeIndexes(List<LayoutToken> tokens, LexiconPositionsIndexes indexes) {
+        if (!compiled)
+            throw new IllegalStateException("The lexicon matcher must be compiled before matching");
+
+        int size = 0;
+        for (LayoutToken token : tokens) {
+            if (!isSeparator(token.getText()))
+                size++;
+        }
+
+        byte[] flags = new byte[size];
+        // for each lexicon, end of the longest match starting at a given position, -1 if none
+        int[][] longestEnds = new int[LEXICON_FLAGS.length][];
+
+        Node node = root;
+        int position = 0;
+        for (LayoutToken token : tokens) {
+            String text = token.getText();
+            if (isSeparator(text))
+                continue;
+            String key = text.toLowerCase();
+
+            Node next = node.child(key);
+            while ((next == null) && (node != root)) {
+                node = node.fail;
+                next = node.child(key);
+            }
+            node = (next != null) ? next : root;
+
+            // all the terms ending at the current position
+            Node match = (node.flags != 0) ? node : node.output;
+            while (match != null) {
+                int start = position - match.depth + 1;
+                for (int l = 0; l < LEXICON_FLAGS.length; l++) {
+                    if ((match.flags & LEXICON_FLAGS[l]) == 0)
+                        continue;
+                    if (longestEnds[l] == null) {
+                        longestEnds[l] = new int[size];
+                        Arrays.fill(longestEnds[l], -1);
+                    }
+                    // positions are increasing, so the current end is the longest for this start
+                    longestEnds[l][start] = position;
+                }
+                match = match.output;
+            }
+            position++;
+        }
+
+        indexes.setMatches(
+                toPositions(longestEnds[0], flags, LEXICON_FLAGS[0]),
+                toPositions(longestEnds[1], flags, LEXICON_FLAGS[1]),
+                toPositions(longestEnds[2], flags, LEXICON_FLAGS[2]),
+                toPositions(longestEnds[3], flags, LEXICON_FLAGS[3]),
+                flags);
+    }
+
+    /**
+     * Leftmost-longest non-overlapping matches, the lexicon flag being set on the tokens
+     * of these matches only.
+     */
+    private static List<OffsetPosition> toPositions(int[] longestEnds, byte[] flags, int lexiconFlag) {
+        List<OffsetPosition> positions = new ArrayList<>();
+        if (longestEnds == null)
+            return positions;
+        int start = 0;
+        while (start < longestEnds.length) {
+            int end = longestEnds[start];
+            if (end >= 0) {
+                positions.add(new OffsetPosition(start, end));
+                for (int i = start; i <= end; i++) {
+                    flags[i] |= lexiconFlag;
+                }
+                start = end + 1;
+            } else {
+                start++;
+            }
+        }
+        return positions;
+    }
+
+    private static boolean isSeparator(String text) {
+        return (text == null) ||
+                (text.length() == 0) ||
+                text.equals(" ") ||
+                text.equals("\t") ||
+                text.equals("\n") ||
+                text.equals("\r") ||
+                text.equals("\u00A0");
+    }
+}
@@ -1,16 +1,17 @@
 package org.grobid.core.lexicon;
 
-import org.grobid.core.exceptions.GrobidException;
 import org.grobid.core.utilities.GrobidProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -22,146 +23,191 @@ public class NERLexicon {
 
     // NER base types
     public enum NER_Type {
-        UNKNOWN("UNKNOWN"),
-        PERSON("PERSON"),
-        LOCATION("LOCATION"),
-        ORGANISATION("ORGANISATION"),
-        ACRONYM("ACRONYM"),
-        ANIMAL("ANIMAL"),
-        ARTIFACT("ARTIFACT"),
-        BUSINESS("BUSINESS"),
-        INSTITUTION("INSTITUTION"),
-        MEASURE("MEASURE"),
-        AWARD("AWARD"),
-        CONCEPT("CONCEPT"),
-        CONCEPTUAL("CONCEPTUAL"),
-        CREATION("CREATION"),
-        EVENT("EVENT"),
-        LEGAL("LEGAL"),
-        IDENTIFIER("IDENTIFIER"),
-        INSTALLATION("INSTALLATION"),
-        MEDIA("MEDIA"),
-        NATIONAL("NATIONAL"),
-        SUBSTANCE("SUBSTANCE"),
-        PLANT("PLANT"),
-        PERIOD("PERIOD"),
-        TITLE("TITLE"),
-        PERSON_TYPE("PERSON_TYPE"),
-        WEBSITE("WEBSITE"),
-        SPORT_TEAM("SPORT_TEAM");
+        UNKNOWN("UNKNOWN", "NETYPE_UNKNOWN/N1"),
+        PERSON("PERSON", "person/N1"),
+        LOCATION("LOCATION", "location/N1"),
+        ORGANISATION("ORGANISATION", "organizational_unit/N1"),
+        ACRONYM("ACRONYM", "acronym/N1"),
+        ANIMAL("ANIMAL", "animal/N1"),
+        ARTIFACT("ARTIFACT", "artifact/N1"),
+        BUSINESS("BUSINESS", "business/N1"),
+        INSTITUTION("INSTITUTION", "institution/N2"),
+        MEASURE("MEASURE", "measure/N3"),
+        AWARD("AWARD", "award/N2"),
+        CONCEPT("CONCEPT", "concept/N1"),
+        CONCEPTUAL("CONCEPTUAL", "conceptual/J1"),
+        CREATION("CREATION", "creation/N2"),
+        EVENT("EVENT", "event/N1"),
+        LEGAL("LEGAL", null),
+        IDENTIFIER("IDENTIFIER", "identifier/N1"),
+        INSTALLATION("INSTALLATION", "installation/N2"),
+        MEDIA("MEDIA", "media/N1"),
+        NATIONAL("NATIONAL", "national/J3"),
+        SUBSTANCE("SUBSTANCE", "naturally-occurring_substance/N1"),
+        PLANT("PLANT", "plant/N2"),
+        PERIOD("PERIOD", "time_period/N1"),
+        TITLE("TITLE", "title/N6"),
+        PERSON_TYPE("PERSON_TYPE", "type_of_person/N1"),
+        WEBSITE("WEBSITE", "website/N1"),
+        SPORT_TEAM("SPORT_TEAM", "athletic_team/N1");
 
         private String name;
+        // type of the Idilia annotations corresponding to this type, null if none
+        private String idiliaType;
+
+        // NER types of the Idilia types and of the CRF labels, built once
+        private static final Map<String, NER_Type> IDILIA_TYPES;
+        private static final Map<String, NER_Type> LABEL_TYPES;
+
+        static {
+            Map<String, NER_Type> idiliaTypes = new HashMap<>();
+            Map<String, NER_Type> labelTypes = new HashMap<>();
+            for (NER_Type type : values()) {
+                if (type.idiliaType != null)
+                    idiliaTypes.put(type.idiliaType, type);
+                labelTypes.put(type.name, type);
+                labelTypes.put(type.name.toLowerCase(), type);
+            }
+            // label of the sport teams in the older models
+            labelTypes.put("ATHLETIC_TEAM", SPORT_TEAM);
+            labelTypes.put("athletic_team", SPORT_TEAM);
+            IDILIA_TYPES = Collections.unmodifiableMap(idiliaTypes);
+            LABEL_TYPES = Collections.unmodifiableMap(labelTypes);
+        }
 
-        private NER_Type(String name) {
+        private NER_Type(String name, String idiliaType) {
             this.name = name;
+            this.idiliaType = idiliaType;
         }
 
         public String getName() {
             return name;
         }
 
+        public String getIdiliaType() {
+            return idiliaType;
+        }
+
+        /**
+         * NER type of an Idilia type, UNKNOWN for the types without correspondence.
+         */
         static public NER_Type mapIdilia(String type) {
-            if (type.equals("person/N1")) {
-                return NER_Type.PERSON;
-            } else if (type.equals("location/N1")) {
-                return NER_Type.LOCATION;
-            } else if (type.equals("organizational_unit/N1")) {
-                return NER_Type.ORGANISATION;
-            } else if (type.equals("acronym/N1")) {
-                return NER_Type.ACRONYM;
-            } else if (type.equals("animal/N1")) {
-                return NER_Type.ANIMAL;
-            } else if (type.equals("artifact/N1")) {
-                return NER_Type.ARTIFACT;
-            } else if (type.equals("business/N1")) {
-                return NER_Type.BUSINESS;
-            } else if (type.equals("institution/N2")) {
-                return NER_Type.INSTITUTION;
-            } else if (type.equals("measure/N3")) {
-                return NER_Type.MEASURE;
-            } else if (type.equals("award/N2")) {
-                return NER_Type.AWARD;
-            } else if (type.equals("concept/N1")) {
-                return NER_Type.CONCEPT;
-            } else if (type.equals("conceptual/J1")) {
-                return NER_Type.CONCEPTUAL;
-            } else if (type.equals("creation/N2")) {
-                return NER_Type.CREATION;
-            } else if (type.equals("event/N1")) {
-                return NER_Type.EVENT;
-            } else if (type.equals("identifier/N1")) {
-                return NER_Type.IDENTIFIER;
-            } else if (type.equals("installation/N2")) {
-                return NER_Type.INSTALLATION;
-            } else if (type.equals("media/N1")) {
-                return NER_Type.MEDIA;
-            } else if (type.equals("national/J3")) {
-                return NER_Type.NATIONAL;
-            } else if (type.equals("naturally-occurring_substance/N1")) {
-                return NER_Type.SUBSTANCE;
-            } else if (type.equals("plant/N2")) {
-                return NER_Type.PLANT;
-            } else if (type.equals("time_period/N1")) {
-                return NER_Type.PERIOD;
-            } else if (type.equals("title/N6")) {
-                return NER_Type.TITLE;
-            } else if (type.equals("type_of_person/N1")) {
-                return NER_Type.PERSON_TYPE;
-            } else if (type.equals("website/N1")) {
-                return NER_Type.WEBSITE;
-            } else if (type.equals("athletic_team/N1")) {
-                return NER_Type.SPORT_TEAM;
-            } else if (type.equals("NETYPE_UNKNOWN/N1")) {
-                return NER_Type.UNKNOWN;
-            } else {
-                return NER_Type.UNKNOWN;
-            }
+            NER_Type nerType = IDILIA_TYPES.get(type);
+            return (nerType == null) ? NER_Type.UNKNOWN : nerType;
+        }
+
+        /**
+         * NER type of a CRF label, with or without B-/I- prefix, in upper or lower case. 
+         * Return null if the label is not a NER type.
+         */
+        static public NER_Type fromLabel(String label) {
+            if (label.startsWith(START_ENTITY_LABEL_PREFIX) || label.startsWith("I-"))
+                label = label.substring(2);
+            NER_Type type = LABEL_TYPES.get(label);
+            if (type == null)
+                type = LABEL_TYPES.get(label.toUpperCase());
+            return type;
         }
     }
 
     private static Logger LOGGER = LoggerFactory.getLogger(NERLexicon.class);
 
     private static volatile NERLexicon instance;
+    // lexicons with the sense descriptions loaded from a binary index, by index file
+    private static final Map<File, NERLexicon> indexedInstances = new ConcurrentHashMap<>();
+
+    // name of the default index file of the sense descriptions, in the Grobid temporary directory
+    public static final String DEFAULT_DESCRIPTIONS_INDEX = "grobid-ner-sense-descriptions.idx";
+
+    // id of a sense label without description
+    public static final int UNKNOWN_SENSE = SenseDescriptions.UNKNOWN;
 
-    private Map<String, String> descriptions = new TreeMap<String, String>();
+    private final SenseDescriptions descriptions;
 
+    /**
+     * Lexicon with the sense descriptions parsed from descriptions.txt.
+     */
     public static synchronized NERLexicon getInstance() {
         if (instance == null)
-            instance = new NERLexicon();
+            instance = new NERLexicon(null);
 
         return instance;
     }
 
-    private NERLexicon() {
+    /**
+     * Lexicon with the sense descriptions loaded from the given pre-indexed binary form of 
+     * descriptions.txt, memory-mapped, or parsed from the text file if the index file is 
+     * null. The index is (re)built when missing or older than the text file.
+     */
+    public static NERLexicon getInstance(File indexFile) {
+        if (indexFile == null)
+            return getInstance();
+        return indexedInstances.computeIfAbsent(indexFile.getAbsoluteFile(), NERLexicon::new);
+    }
+
+    /**
+     * Index file of the sense descriptions for a configured path, the default one in the 
+     * Grobid temporary directory if the path is empty.
+     */
+    public static File getDescriptionsIndexFile(String path) {
+        if ((path == null) || path.trim().isEmpty())
+            return new File(GrobidProperties.getTempPath(), DEFAULT_DESCRIPTIONS_INDEX);
+        return new File(path.trim());
+    }
 
-        String pathSenseDescriptions = GrobidProperties.getGrobidHomePath() + "/lexicon/senses/descriptions.txt";
+    private NERLexicon(File indexFile) {
+        File textFile = new File(GrobidProperties.getGrobidHomePath() + "/lexicon/senses/descriptions.txt");
         // read the Wordnet descriptions
-        try {
-            BufferedReader bufReader = new BufferedReader(
-                    new InputStreamReader(new FileInputStream(pathSenseDescriptions)));
-            String line;
-            while ((line = bufReader.readLine()) != null) {
-                if (line.trim().length() == 0) {
-                    continue;
-                }
-                if (line.trim().startsWith("#")) {
-                    // this is a comment
-                    continue;
-                }
-                String[] parts = line.trim().split("\t");
-                if (parts.length != 2) {
-                    continue;
+        if (indexFile != null)
+            descriptions = loadIndexed(textFile, indexFile);
+        else
+            descriptions = SenseDescriptions.readText(textFile);
+        LOGGER.info(descriptions.size() + " word sense descriptions loaded");
+    }
+
+    private static SenseDescriptions loadIndexed(File textFile, File indexFile) {
+        if (!indexFile.exists() || (indexFile.lastModified() < textFile.lastModified())) {
+            SenseDescriptions fromText = SenseDescriptions.readText(textFile);
+            try {
+                // written aside then moved, so that a partial index is never mapped
+                File parent = indexFile.getAbsoluteFile().getParentFile();
+                Files.createDirectories(parent.toPath());
+                File tmpFile = File.createTempFile(indexFile.getName(), ".tmp", parent);
+                try {
+                    fromText.writeIndex(tmpFile);
+                    Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(tmpFile.toPath());
                 }
-                descriptions.put(parts[0], parts[1]);
+            } catch (IOException e) {
+                LOGGER.warn("Cannot write the word sense descriptions index " + indexFile.getPath() +
+                        ", the text file is used", e);
+                return fromText;
             }
-            bufReader.close();
-        } catch (IOException e) {
-            throw new GrobidException("Error reading word sense dfescriptions file.", e);
         }
+        return SenseDescriptions.mapIndex(indexFile);
+    }
+
+    /**
+     * Id of a sense label, UNKNOWN_SENSE if the label has no description.
+     */
+    public int getSenseId(String label) {
+        return descriptions.getId(label);
+    }
+
+    /**
+     * Sense label of an id, the same string instance for all the senses with this id.
+     */
+    public String getSenseLabel(int senseId) {
+        return descriptions.getLabel(senseId);
+    }
+
+    public String getDescription(int senseId) {
+        return descriptions.getDescription(senseId);
     }
 
     public String getDescription(String label) {
-        return descriptions.get(label);
+        return descriptions.getDescription(label);
     }
 
     public static final String START_ENTITY_LABEL_PREFIX = "B-";
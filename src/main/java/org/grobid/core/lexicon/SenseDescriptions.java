@@ -0,0 +1,259 @@
+package org.grobid.core.lexicon;
+
+import org.grobid.core.exceptions.GrobidResourceException;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Table of the WordNet sense labels and of their descriptions. Each label is given at load
+ * time an int id (its rank in the label order, the Unicode code point order), so that the
+ * sense decoding can work on ids and get a description with an array access. The id of a
+ * label is found by binary search in the sorted labels.
+ *
+ * The table is read from the tab separated descriptions.txt file, or from a pre-indexed
+ * binary form of it which is memory-mapped: nothing is then decoded at load time, the ids
+ * are searched directly in the UTF-8 bytes of the mapped labels (their unsigned byte order 
+ * being the code point order) and the labels and descriptions are decoded at their first use.
+ *
+ * Binary form: magic number, version, number of labels n, then 2n+1 byte offsets in the
+ * UTF-8 data which follows, label i being the bytes [offsets[2i], offsets[2i+1][ and its
+ * description the bytes [offsets[2i+1], offsets[2i+2][.
+ *
+ * Once loaded, the table is read-only and can be shared by several threads.
+ */
+public class SenseDescriptions {
+
+    // id of a label not present in the table
+    public static final int UNKNOWN = -1;
+
+    private static final int MAGIC = 0x47534e44;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    /**
+     * Order of the labels, by Unicode code point, which is also the unsigned byte order of
+     * their UTF-8 encoding.
+     */
+    public static final Comparator<String> LABEL_ORDER = (label1, label2) -> {
+        int i1 = 0;
+        int i2 = 0;
+        while ((i1 < label1.length()) && (i2 < label2.length())) {
+            int c1 = label1.codePointAt(i1);
+            int c2 = label2.codePointAt(i2);
+            if (c1 != c2)
+                return Integer.compare(c1, c2);
+            i1 += Character.charCount(c1);
+            i2 += Character.charCount(c2);
+        }
+        return Integer.compare(label1.length() - i1, label2.length() - i2);
+    };
+
+    // decoded labels and descriptions, filled at first use when mapped
+    private final String[] labels;
+    private final String[] descriptions;
+
+    // mapped binary form, null if the labels and descriptions are all decoded
+    private final ByteBuffer mapped;
+    private final int dataStart;
+
+    private SenseDescriptions(String[] labels, String[] descriptions, ByteBuffer mapped, int dataStart) {
+        this.labels = labels;
+        this.descriptions = descriptions;
+        this.mapped = mapped;
+        this.dataStart = dataStart;
+    }
+
+    /**
+     * Table of a tab separated file, one label and its description per line, the empty
+     * lines and the lines starting with # being ignored.
+     */
+    public static SenseDescriptions readText(File file) {
+        Map<String, String> entries = new TreeMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if ((line.length() == 0) || line.startsWith("#"))
+                    continue;
+                String[] parts = line.split("\t");
+                if (parts.length != 2)
+                    continue;
+                entries.put(parts[0], parts[1]);
+            }
+        } catch (IOException e) {
+            throw new GrobidResourceException("Error reading word sense descriptions file: " + file.getPath(), e);
+        }
+        return of(entries);
+    }
+
+    /**
+     * Table of the given labels and descriptions, the ids following the label order.
+     */
+    public static SenseDescriptions of(Map<String, String> entries) {
+        String[] labels = entries.keySet().toArray(new String[0]);
+        Arrays.sort(labels, LABEL_ORDER);
+        String[] descriptions = new String[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            descriptions[i] = entries.get(labels[i]);
+        }
+        return new SenseDescriptions(labels, descriptions, null, 0);
+    }
+
+    /**
+     * Write the binary form of the table.
+     */
+    public void writeIndex(File file) throws IOException {
+        int n = labels.length;
+        byte[][] data = new byte[2 * n][];
+        int[] offsets = new int[2 * n + 1];
+        for (int i = 0; i < n; i++) {
+            data[2 * i] = getLabel(i).getBytes(StandardCharsets.UTF_8);
+            data[2 * i + 1] = getDescription(i).getBytes(StandardCharsets.UTF_8);
+        }
+        for (int i = 0; i < data.length; i++) {
+            offsets[i + 1] = offsets[i] + data[i].length;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            for (byte[] bytes : data) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Table of a binary form written by writeIndex(), memory-mapped.
+     */
+    public static SenseDescriptions mapIndex(File file) {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new GrobidResourceException("Error mapping word sense descriptions index: " + file.getPath(), e);
+        }
+
+        if ((buffer.capacity() < HEADER_SIZE) || (buffer.getInt(0) != MAGIC) || (buffer.getInt(Integer.BYTES) != VERSION))
+            throw new GrobidResourceException("Invalid word sense descriptions index: " + file.getPath());
+        int n = buffer.getInt(2 * Integer.BYTES);
+        int dataStart = HEADER_SIZE + (2 * n + 1) * Integer.BYTES;
+        if ((n < 0) || (dataStart > buffer.capacity()) ||
+                (dataStart + buffer.getInt(HEADER_SIZE + 2 * n * Integer.BYTES) != buffer.capacity()))
+            throw new GrobidResourceException("Invalid word sense descriptions index: " + file.getPath());
+
+        return new SenseDescriptions(new String[n], new String[n], buffer, dataStart);
+    }
+
+    private int offset(int entry) {
+        return mapped.getInt(HEADER_SIZE + entry * Integer.BYTES);
+    }
+
+    /**
+     * Compare the mapped label of an id with UTF-8 bytes, as unsigned bytes.
+     */
+    private int compareLabel(int id, byte[] bytes) {
+        int start = dataStart + offset(2 * id);
+        int length = dataStart + offset(2 * id + 1) - start;
+        int common = Math.min(length, bytes.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(mapped.get(start + i) & 0xff, bytes[i] & 0xff);
+            if (cmp != 0)
+                return cmp;
+        }
+        return Integer.compare(length, bytes.length);
+    }
+
+    private static String decode(ByteBuffer buffer, int dataStart, int entry) {
+        int start = buffer.getInt(HEADER_SIZE + entry * Integer.BYTES);
+        int end = buffer.getInt(HEADER_SIZE + (entry + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        // duplicate, so that the shared buffer position is never modified
+        ByteBuffer data = buffer.duplicate();
+        data.position(dataStart + start);
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return labels.length;
+    }
+
+    /**
+     * Id of a sense label, UNKNOWN if the label is not in the table.
+     */
+    public int getId(String label) {
+        if (mapped == null) {
+            int id = Arrays.binarySearch(labels, label, LABEL_ORDER);
+            return (id < 0) ? UNKNOWN : id;
+        }
+
+        byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = labels.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int cmp = compareLabel(middle, bytes);
+            if (cmp < 0)
+                low = middle + 1;
+            else if (cmp > 0)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Sense label of an id, decoded at its first use when mapped.
+     */
+    public String getLabel(int id) {
+        String label = labels[id];
+        if (label == null) {
+            // strings are immutable, so a concurrent decoding of the same entry is harmless
+            label = decode(mapped, dataStart, 2 * id);
+            labels[id] = label;
+        }
+        return label;
+    }
+
+    /**
+     * Description of a sense id, null for UNKNOWN.
+     */
+    public String getDescription(int id) {
+        if (id == UNKNOWN)
+            return null;
+        String description = descriptions[id];
+        if (description == null) {
+            // strings are immutable, so a concurrent decoding of the same entry is harmless
+            description = decode(mapped, dataStart, 2 * id + 1);
+            descriptions[id] = description;
+        }
+        return description;
+    }
+
+    public String getDescription(String label) {
+        return getDescription(getId(label));
+    }
+}
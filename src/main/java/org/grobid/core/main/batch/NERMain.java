@@ -37,6 +37,8 @@ public class NERMain {
      */
     private static GrobidNERMainArgs gbdArgs;
 
+    private static GrobidNerConfiguration grobidNerConfiguration = null;
+
     /**
      * Build the path to grobid.properties from the path to grobid-home.
      *
@@ -54,7 +56,6 @@ public class NERMain {
      */
     protected static void initProcess(String grobidHome) {
         try {
-            GrobidNerConfiguration grobidNerConfiguration = null;
             try {
                 ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
                 File yamlFile = new File("resources/config/grobid-ner.yaml");
@@ -194,8 +195,9 @@ public class NERMain {
             long time = System.currentTimeMillis();
 
             if (gbdArgs.getProcessMethodName().equals(COMMAND_CREATE_TRAINING_NER)) {
-                NERParsers nerParsers = new NERParsers();
-                nb = nerParsers.createTrainingBatch(gbdArgs.getPath2Input(), gbdArgs.getPath2Output(), gbdArgs.getLang());
+                NERParsers nerParsers = new NERParsers(grobidNerConfiguration);
+                nb = nerParsers.createTrainingBatch(gbdArgs.getPath2Input(), gbdArgs.getPath2Output(), gbdArgs.getLang(), 
+                    gbdArgs.isRecursive());
                 LOGGER.info(nb + " files processed in " + (System.currentTimeMillis() - time) + " milliseconds");
             } else if (gbdArgs.getProcessMethodName().equals(COMMAND_CREATE_TRAINING_SENSE)) {
                 throw new RuntimeException("Not yet implemented. ");
@@ -22,6 +22,49 @@ public class GrobidNerConfiguration {
     public String leMondeCorpusPath;
     public String wapitiExecPath;
 
+    // match the four NER lexicons in a single pass instead of one scan per lexicon
+    public boolean combinedLexiconMatcher = false;
+
+    // gazetteer files of the combined lexicon matcher by lexicon, relative to grobid-home/lexicon
+    public Map<String, List<String>> lexicons = new HashMap<>();
+
+    // number of threads for the batch extraction, 0 for the number of available processors
+    public int batchThreads = 0;
+
+    // maximum number of cached language identification results, 0 for no cache
+    public int languageIdCacheSize = 0;
+
+    // maximum memory of the cached entity extraction results in MB, 0 for no cache
+    public int entityCacheSizeMB = 0;
+
+    // window and overlap sizes in characters of the streaming extraction
+    public int streamingWindowSize = 20000;
+    public int streamingOverlap = 1000;
+
+    // maximum number of labelled tokens per sequence labelling call, 0 for no limit
+    public int maxSequenceLength = 0;
+
+    // number of threads for labelling in parallel the chunks of a long sequence, 0 for sequential
+    public int chunkThreads = 0;
+
+    // collect the latency of the extraction stages and the throughput per model
+    public boolean metrics = false;
+
+    // number of passes over synthetic sentences to warm up the parsers at startup, 0 for none
+    public int warmUpIterations = 0;
+
+    // enabled languages, all the supported ones if empty
+    public List<String> languages = new ArrayList<>();
+
+    // number of threads for generating the pre-annotated training data
+    public int trainingThreads = 1;
+
+    // load the word sense descriptions from a memory-mapped binary index
+    public boolean senseDescriptionsIndex = false;
+
+    // file of the sense descriptions index, in the Grobid temporary directory if empty
+    public String senseDescriptionsIndexPath = "";
+
     public GrobidNerConfiguration getInstance() {
         return getInstance(null);
     }
@@ -100,6 +143,126 @@ public class GrobidNerConfiguration {
         this.wapitiExecPath = wapitiExecPath;
     }
 
+    public boolean isCombinedLexiconMatcher() {
+        return this.combinedLexiconMatcher;
+    }
+
+    public void setCombinedLexiconMatcher(boolean combinedLexiconMatcher) {
+        this.combinedLexiconMatcher = combinedLexiconMatcher;
+    }
+
+    public Map<String, List<String>> getLexicons() {
+        return this.lexicons;
+    }
+
+    public void setLexicons(Map<String, List<String>> lexicons) {
+        this.lexicons = lexicons;
+    }
+
+    public int getBatchThreads() {
+        return this.batchThreads;
+    }
+
+    public void setBatchThreads(int batchThreads) {
+        this.batchThreads = batchThreads;
+    }
+
+    public int getLanguageIdCacheSize() {
+        return this.languageIdCacheSize;
+    }
+
+    public void setLanguageIdCacheSize(int languageIdCacheSize) {
+        this.languageIdCacheSize = languageIdCacheSize;
+    }
+
+    public int getEntityCacheSizeMB() {
+        return this.entityCacheSizeMB;
+    }
+
+    public void setEntityCacheSizeMB(int entityCacheSizeMB) {
+        this.entityCacheSizeMB = entityCacheSizeMB;
+    }
+
+    public int getStreamingWindowSize() {
+        return this.streamingWindowSize;
+    }
+
+    public void setStreamingWindowSize(int streamingWindowSize) {
+        this.streamingWindowSize = streamingWindowSize;
+    }
+
+    public int getStreamingOverlap() {
+        return this.streamingOverlap;
+    }
+
+    public void setStreamingOverlap(int streamingOverlap) {
+        this.streamingOverlap = streamingOverlap;
+    }
+
+    public int getMaxSequenceLength() {
+        return this.maxSequenceLength;
+    }
+
+    public void setMaxSequenceLength(int maxSequenceLength) {
+        this.maxSequenceLength = maxSequenceLength;
+    }
+
+    public int getChunkThreads() {
+        return this.chunkThreads;
+    }
+
+    public void setChunkThreads(int chunkThreads) {
+        this.chunkThreads = chunkThreads;
+    }
+
+    public boolean isMetrics() {
+        return this.metrics;
+    }
+
+    public void setMetrics(boolean metrics) {
+        this.metrics = metrics;
+    }
+
+    public int getWarmUpIterations() {
+        return this.warmUpIterations;
+    }
+
+    public void setWarmUpIterations(int warmUpIterations) {
+        this.warmUpIterations = warmUpIterations;
+    }
+
+    public boolean isSenseDescriptionsIndex() {
+        return this.senseDescriptionsIndex;
+    }
+
+    public void setSenseDescriptionsIndex(boolean senseDescriptionsIndex) {
+        this.senseDescriptionsIndex = senseDescriptionsIndex;
+    }
+
+    public String getSenseDescriptionsIndexPath() {
+        return this.senseDescriptionsIndexPath;
+    }
+
+    public void setSenseDescriptionsIndexPath(String senseDescriptionsIndexPath) {
+        this.senseDescriptionsIndexPath = senseDescriptionsIndexPath;
+    }
+
+    public List<String> getLanguages() {
+        return this.languages;
+    }
+
+    public void setLanguages(List<String> languages) {
+        this.languages = languages;
+    }
+
+    public int getTrainingThreads() {
+        return this.trainingThreads;
+    }
+
+    public void setTrainingThreads(int trainingThreads) {
+        this.trainingThreads = trainingThreads;
+    }
+
     public List<ModelParameters> getModels() {
         return this.models;
     }
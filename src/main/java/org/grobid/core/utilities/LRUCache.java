@@ -0,0 +1,132 @@
+package org.grobid.core.utilities;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe bounded cache with least-recently-used eviction. The bound is expressed as a
+ * maximum total weight, each entry weighting 1 unless a weigher is given (e.g. to bound the 
+ * memory used by the cached values). Hit and miss counters are maintained for monitoring.
+ */
+public class LRUCache<K, V> {
+
+    private final LinkedHashMap<K, V> entries;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+
+    private long weight = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Cache of at most maxSize entries.
+     */
+    public LRUCache(int maxSize) {
+        this(maxSize, null);
+    }
+
+    /**
+     * Cache bounded by the total weight of its values, as given by the weigher, or by the
+     * number of entries if the weigher is null.
+     */
+    public LRUCache(long maxWeight, ToLongFunction<V> weigher) {
+        if (maxWeight <= 0)
+            throw new IllegalArgumentException("The maximum weight of a cache must be positive: " + maxWeight);
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        // access order for LRU eviction
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value == null)
+            misses++;
+        else
+            hits++;
+        return value;
+    }
+
+    /**
+     * Add or replace an entry, evicting the least recently used entries as needed. A value
+     * heavier than the maximum weight of the cache is not added.
+     */
+    public synchronized void put(K key, V value) {
+        long valueWeight = weigh(value);
+        if (valueWeight > maxWeight)
+            return;
+
+        V previous = entries.put(key, value);
+        if (previous != null)
+            weight -= weigh(previous);
+        weight += valueWeight;
+
+        Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+        while ((weight > maxWeight) && iterator.hasNext()) {
+            Map.Entry<K, V> eldest = iterator.next();
+            weight -= weigh(eldest.getValue());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private long weigh(V value) {
+        return (weigher == null) ? 1 : weigher.applyAsLong(value);
+    }
+
+    public synchronized V remove(K key) {
+        V value = entries.remove(key);
+        if (value != null)
+            weight -= weigh(value);
+        return value;
+    }
+
+    /**
+     * Remove all the entries, the counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Ratio of the lookups found in the cache, 0 if no lookup has been made.
+     */
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+        return (lookups == 0) ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "size=" + entries.size() + ", weight=" + weight + "/" + maxWeight + ", hits=" + hits +
+            ", misses=" + misses + ", evictions=" + evictions;
+    }
+}
@@ -0,0 +1,33 @@
+package org.grobid.core.utilities;
+
+/**
+ * 64-bit fingerprints of texts (FNV-1a over the UTF-16 chars), used as compact cache keys.
+ * Different texts can share the same fingerprint, but with a negligible probability for
+ * the cache sizes considered here.
+ */
+public class TextFingerprint {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Fingerprint of the maxLength first characters of a text (the full text if maxLength 
+     * is negative).
+     */
+    public static long of(CharSequence text, int maxLength) {
+        int length = ((maxLength < 0) || (maxLength > text.length())) ? text.length() : maxLength;
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            hash ^= (c & 0xff);
+            hash *= FNV_PRIME;
+            hash ^= (c >>> 8);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    public static long of(CharSequence text) {
+        return of(text, -1);
+    }
+}
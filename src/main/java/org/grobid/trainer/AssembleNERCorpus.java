@@ -10,9 +10,9 @@ import org.grobid.core.exceptions.GrobidResourceException;
 import org.grobid.core.features.FeaturesVectorNER;
 import org.grobid.core.features.FeaturesVectorNERSense;
 import org.grobid.core.lexicon.Lexicon;
+import org.grobid.core.lexicon.LexiconPositionsIndexes;
 import org.grobid.core.main.LibraryLoader;
 import org.grobid.core.utilities.GrobidProperties;
-import org.grobid.core.utilities.OffsetPosition;
 import org.grobid.core.utilities.GrobidNerConfiguration;
 import org.grobid.core.utilities.GrobidConfig.ModelParameters;
 import org.grobid.core.utilities.TextUtilities;
@@ -251,10 +251,11 @@ public class AssembleNERCorpus {
                     try {
                         //text = text.replace("\n", " ");
                         int sentence = 0;
-                        List<OffsetPosition> localLocationPositions = lexicon.tokenPositionsLocationNames(text);
-                        List<OffsetPosition> localPersonTitlePositions = lexicon.tokenPositionsPersonTitle(text);
-                        List<OffsetPosition> localOrganisationPositions = lexicon.tokenPositionsOrganisationNames(text);
-                        List<OffsetPosition> localOrgFormPositions = lexicon.tokenPositionsOrgForm(text);
+                        LexiconPositionsIndexes positionsIndexes = LexiconPositionsIndexes.fromPositions(
+                                lexicon.tokenPositionsLocationNames(text),
+                                lexicon.tokenPositionsPersonTitle(text),
+                                lexicon.tokenPositionsOrganisationNames(text),
+                                lexicon.tokenPositionsOrgForm(text));
                         int currentPosition = 0;
                         StringTokenizer st = new StringTokenizer(text, TextUtilities.fullPunctuations, true);
 
@@ -277,87 +278,20 @@ public class AssembleNERCorpus {
                         StringBuffer ress = new StringBuffer();
                         StringBuffer ress2 = new StringBuffer();
                         int posit = 0; // keep track of the position index in the list of positions
-                        int currentLocationIndex = 0; // keep track of the position index in the list of unit match offsets
-                        int currentPersonTitleIndex = 0;
-                        int currentOrganisationIndex = 0;
-                        int currentOrgFormIndex = 0;
                         for (String block : textBlocks) {
                             currentPosition += positions.get(posit);
 
                             // check if the token is a known NE
                             // do we have a NE at position posit?
-                            boolean isLocationToken = false;
-                            boolean isPersonTitleToken = false;
-                            boolean isOrganisationToken = false;
-                            boolean isOrgFormToken = false;
-                            if ((localLocationPositions != null) && (localLocationPositions.size() > 0)) {
-                                for (int mm = currentLocationIndex; mm < localLocationPositions.size(); mm++) {
-                                    if ((posit >= localLocationPositions.get(mm).start) &&
-                                            (posit <= localLocationPositions.get(mm).end)) {
-                                        isLocationToken = true;
-                                        currentLocationIndex = mm;
-                                        break;
-                                    } else if (posit < localLocationPositions.get(mm).start) {
-                                        isLocationToken = false;
-                                        break;
-                                    } else if (posit > localLocationPositions.get(mm).end) {
-                                        continue;
-                                    }
-                                }
-                            }
-                            if ((localPersonTitlePositions != null) && (localPersonTitlePositions.size() > 0)) {
-                                for (int mm = currentPersonTitleIndex; mm < localPersonTitlePositions.size(); mm++) {
-                                    if ((posit >= localPersonTitlePositions.get(mm).start) &&
-                                            (posit <= localPersonTitlePositions.get(mm).end)) {
-                                        isPersonTitleToken = true;
-                                        currentPersonTitleIndex = mm;
-                                        break;
-                                    } else if (posit < localPersonTitlePositions.get(mm).start) {
-                                        isPersonTitleToken = false;
-                                        break;
-                                    } else if (posit > localPersonTitlePositions.get(mm).end) {
-                                        continue;
-                                    }
-                                }
-                            }
-                            if ((localOrganisationPositions != null) && (localOrganisationPositions.size() > 0)) {
-                                for (int mm = currentOrganisationIndex; mm < localOrganisationPositions.size(); mm++) {
-                                    if ((posit >= localOrganisationPositions.get(mm).start) &&
-                                            (posit <= localOrganisationPositions.get(mm).end)) {
-                                        isOrganisationToken = true;
-                                        currentOrganisationIndex = mm;
-                                        break;
-                                    } else if (posit < localOrganisationPositions.get(mm).start) {
-                                        isOrganisationToken = false;
-                                        break;
-                                    } else if (posit > localOrganisationPositions.get(mm).end) {
-                                        continue;
-                                    }
-                                }
-                            }
-                            if ((localOrgFormPositions != null) && (localOrgFormPositions.size() > 0)) {
-                                for (int mm = currentOrgFormIndex; mm < localOrgFormPositions.size(); mm++) {
-                                    if ((posit >= localOrgFormPositions.get(mm).start) &&
-                                            (posit <= localOrgFormPositions.get(mm).end)) {
-                                        isOrgFormToken = true;
-                                        currentOrgFormIndex = mm;
-                                        break;
-                                    } else if (posit < localOrgFormPositions.get(mm).start) {
-                                        isOrganisationToken = false;
-                                        break;
-                                    } else if (posit > localOrgFormPositions.get(mm).end) {
-                                        continue;
-                                    }
-                                }
-                            }
+                            int lexiconFlags = positionsIndexes.getLexiconFlags(posit);
                             ress.append(FeaturesVectorNER
                                     .addFeaturesNER(block,
-                                            isLocationToken, isPersonTitleToken, isOrganisationToken, isOrgFormToken)
+                                            lexiconFlags)
                                     .printVector());
                             ress.append("\n");
                             ress2.append(FeaturesVectorNERSense
                                     .addFeatures(block,
-                                            isLocationToken, isPersonTitleToken, isOrganisationToken, isOrgFormToken)
+                                            lexiconFlags)
                                     .printVector());
                             ress2.append("\n");
 
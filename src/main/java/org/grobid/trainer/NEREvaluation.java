@@ -264,15 +264,8 @@ public class NEREvaluation {
             return label;
         }
 
-        if (label.startsWith("I-") || label.startsWith("B-")) {
-            label = label.substring(2, label.length());
-        }
-
-        NERLexicon.NER_Type type = null;
-
-        try {
-            type = NERLexicon.NER_Type.valueOf(label);
-        } catch (IllegalArgumentException iae) {
+        NERLexicon.NER_Type type = NERLexicon.NER_Type.fromLabel(label);
+        if (type == null) {
             LOGGER.warn("Forcing label " + label + " to 'O'");
             return "O";
         }
@@ -7,6 +7,7 @@ import org.grobid.core.exceptions.GrobidResourceException;
 import org.grobid.core.features.FeaturesVectorNER;
 import org.grobid.core.layout.LayoutToken;
 import org.grobid.core.lexicon.Lexicon;
+import org.grobid.core.lexicon.LexiconPositionsIndexes;
 import org.grobid.core.lexicon.NERLexicon;
 import org.grobid.core.main.GrobidHomeFinder;
 import org.grobid.core.main.LibraryLoader;
@@ -541,15 +542,10 @@ public class NERTrainer extends AbstractTrainer {
                                    boolean leaveLabelUntouched) {
         //int totalLine = texts.size();
         int posit = 0;
+        // lexicon flags of all the token positions, computed once from the position lists
+        LexiconPositionsIndexes positionsIndexes = LexiconPositionsIndexes.fromPositions(locationPositions, 
+            personTitlePositions, organisationPositions, orgFormPositions);
         //int sentence = 0;
-        int currentLocationIndex = 0;
-        int currentPersonTitleIndex = 0;
-        int currentOrganisationIndex = 0;
-        int currentOrgFormIndex = 0;
-        boolean isLocationToken = false;
-        boolean isPersonTitleToken = false;
-        boolean isOrganisationToken = false;
-        boolean isOrgFormToken = false;
         try {
             String previousLabel = null;
             for (int n = 0; n < tokens.size(); n++) {
@@ -560,67 +556,8 @@ public class NERTrainer extends AbstractTrainer {
                     previousLabel = null;
                 }
 
-                // do we have a unit term at position posit?
-                if ((locationPositions != null) && (locationPositions.size() > 0)) {
-                    for (int mm = currentLocationIndex; mm < locationPositions.size(); mm++) {
-                        if ((posit >= locationPositions.get(mm).start) &&
-                                (posit <= locationPositions.get(mm).end)) {
-                            isLocationToken = true;
-                            currentLocationIndex = mm;
-                            break;
-                        } else if (posit < locationPositions.get(mm).start) {
-                            isLocationToken = false;
-                            break;
-                        } else if (posit > locationPositions.get(mm).end) {
-                            continue;
-                        }
-                    }
-                }
-                if ((personTitlePositions != null) && (personTitlePositions.size() > 0)) {
-                    for (int mm = currentPersonTitleIndex; mm < personTitlePositions.size(); mm++) {
-                        if ((posit >= personTitlePositions.get(mm).start) &&
-                                (posit <= personTitlePositions.get(mm).end)) {
-                            isPersonTitleToken = true;
-                            currentPersonTitleIndex = mm;
-                            break;
-                        } else if (posit < personTitlePositions.get(mm).start) {
-                            isPersonTitleToken = false;
-                            break;
-                        } else if (posit > personTitlePositions.get(mm).end) {
-                            continue;
-                        }
-                    }
-                }
-                if ((organisationPositions != null) && (organisationPositions.size() > 0)) {
-                    for (int mm = currentOrganisationIndex; mm < organisationPositions.size(); mm++) {
-                        if ((posit >= organisationPositions.get(mm).start) &&
-                                (posit <= organisationPositions.get(mm).end)) {
-                            isOrganisationToken = true;
-                            currentOrganisationIndex = mm;
-                            break;
-                        } else if (posit < organisationPositions.get(mm).start) {
-                            isOrganisationToken = false;
-                            break;
-                        } else if (posit > organisationPositions.get(mm).end) {
-                            continue;
-                        }
-                    }
-                }
-                if ((orgFormPositions != null) && (orgFormPositions.size() > 0)) {
-                    for (int mm = currentOrgFormIndex; mm < orgFormPositions.size(); mm++) {
-                        if ((posit >= orgFormPositions.get(mm).start) &&
-                                (posit <= orgFormPositions.get(mm).end)) {
-                            isOrgFormToken = true;
-                            currentOrgFormIndex = mm;
-                            break;
-                        } else if (posit < orgFormPositions.get(mm).start) {
-                            isOrgFormToken = false;
-                            break;
-                        } else if (posit > orgFormPositions.get(mm).end) {
-                            continue;
-                        }
-                    }
-                }
+                // lexicon membership of the token at position posit
+                int lexiconFlags = positionsIndexes.getLexiconFlags(posit);
 
 
                 String cleanLine = token.getText();
@@ -674,17 +611,12 @@ public class NERTrainer extends AbstractTrainer {
                     }
                 }
                 FeaturesVectorNER featuresVector =
-                        FeaturesVectorNER.addFeaturesNER(cleanLine, isLocationToken, isPersonTitleToken,
-                                isOrganisationToken, isOrgFormToken);
+                        FeaturesVectorNER.addFeaturesNER(cleanLine, lexiconFlags);
                 if (featuresVector.label == null)
                     continue;
                 writer.write(featuresVector.printVector() + "\n");
                 writer.flush();
                 posit++;
-                isLocationToken = false;
-                isPersonTitleToken = false;
-                isOrganisationToken = false;
-                isOrgFormToken = false;
             }
         } catch (Exception e) {
             throw new GrobidException("An exception occured while running Grobid.", e);
@@ -0,0 +1,80 @@
+package org.grobid.core.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.grobid.core.lexicon.NERLexicon.NER_Type.LOCATION;
+import static org.grobid.core.lexicon.NERLexicon.NER_Type.PERSON;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class EntityBatchTest {
+
+    private static EntityBatch batch() {
+        return new EntityBatch.Builder(1)
+            .add(PERSON, 0, 10, 0.8f, "John Smith")
+            .add(LOCATION, 20, 26, 0.5f, "Zürich")
+            .add(LOCATION, 30, 36, 0.8f, "Berlin")
+            .build();
+    }
+
+    @Test
+    public void testColumns() throws Exception {
+        EntityBatch batch = batch();
+
+        assertThat(batch.size(), is(3));
+        assertThat(batch.getRawName(1), is("Zürich"));
+        assertThat(batch.getType(1), is(LOCATION));
+        assertThat(batch.getOffsetStart(2), is(30));
+        assertThat(batch.getOffsetEnd(2), is(36));
+        assertThat(batch.getConf(1), is(0.5f));
+        assertThat(batch.appendRawName(0, new StringBuilder(">")).toString(), is(">John Smith"));
+    }
+
+    @Test
+    public void testFlyweightIteration() throws Exception {
+        List<String> names = new ArrayList<>();
+        EntityBatch.View first = null;
+        for (EntityBatch.View view : batch()) {
+            if (first == null)
+                first = view;
+            names.add(view.getType().getName() + ":" + view.getRawName());
+        }
+
+        assertThat(names, is(Arrays.asList("PERSON:John Smith", "LOCATION:Zürich", "LOCATION:Berlin")));
+        // the same view is moved over the rows
+        assertThat(first.getIndex(), is(2));
+    }
+
+    @Test
+    public void testToEntities_roundTrip() throws Exception {
+        List<Entity> entities = batch().toEntities();
+
+        assertThat(entities.get(0).getRawName(), is("John Smith"));
+        assertThat(entities.get(0).getType(), is(PERSON));
+        assertThat(entities.get(0).getConf(), is(0.8));
+        assertThat(entities.get(1).getOffsetStart(), is(20));
+
+        EntityBatch copy = EntityBatch.of(entities);
+        assertThat(copy.size(), is(3));
+        assertThat(copy.getRawName(2), is("Berlin"));
+    }
+
+    @Test
+    public void testAddAll() throws Exception {
+        EntityBatch batch = new EntityBatch.Builder()
+            .add(PERSON, 100, 104, 0.8f, "Anna")
+            .addAll(batch())
+            .addAll(EntityBatch.EMPTY)
+            .build();
+
+        assertThat(batch.size(), is(4));
+        assertThat(batch.getRawName(0), is("Anna"));
+        assertThat(batch.getRawName(1), is("John Smith"));
+        assertThat(batch.getRawName(3), is("Berlin"));
+        assertThat(batch.getType(3), is(LOCATION));
+    }
+}
@@ -0,0 +1,76 @@
+package org.grobid.core.data;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.grobid.core.lexicon.NERLexicon;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class EntityJsonWriterTest {
+
+    private static List<Entity> entities() {
+        Entity entity0 = new Entity("The \"Big\" Apple\\");
+        entity0.setType(NERLexicon.NER_Type.LOCATION);
+        entity0.setOffsetStart(4);
+        entity0.setOffsetEnd(21);
+        entity0.setSense(new Sense("location", "city/N1"));
+
+        Entity entity1 = new Entity("Österreich");
+        entity1.setType(NERLexicon.NER_Type.LOCATION);
+        entity1.setOffsetStart(30);
+        entity1.setOffsetEnd(40);
+
+        return Arrays.asList(entity0, entity1);
+    }
+
+    private static JsonNode writeAndRead(EntityJsonWriter writer, List<Entity> entities) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(entities, out);
+        return new ObjectMapper(writer.getFactory()).readTree(out.toByteArray());
+    }
+
+    @Test
+    public void testWrite_json_escaping() throws Exception {
+        JsonNode result = writeAndRead(EntityJsonWriter.JSON, entities());
+
+        assertThat(result.size(), is(2));
+        assertThat(result.get(0).get("rawName").asText(), is("The \"Big\" Apple\\"));
+        assertThat(result.get(0).get("type").asText(), is("LOCATION"));
+        assertThat(result.get(0).get("offsetStart").asInt(), is(4));
+        assertThat(result.get(0).get("offsetEnd").asInt(), is(21));
+        assertThat(result.get(0).get("sense").get("fineSense").asText(), is("city/N1"));
+        assertThat(result.get(0).get("sense").get("coarseSense").asText(), is("location"));
+        assertThat(result.get(1).get("rawName").asText(), is("Österreich"));
+        assertThat(result.get(1).has("sense"), is(false));
+    }
+
+    @Test
+    public void testWrite_binaryFormats() throws Exception {
+        JsonNode json = writeAndRead(EntityJsonWriter.JSON, entities());
+
+        assertThat(writeAndRead(EntityJsonWriter.SMILE, entities()), is(json));
+        assertThat(writeAndRead(EntityJsonWriter.CBOR, entities()), is(json));
+
+        ByteArrayOutputStream jsonOut = new ByteArrayOutputStream();
+        EntityJsonWriter.JSON.write(entities(), jsonOut);
+        ByteArrayOutputStream smileOut = new ByteArrayOutputStream();
+        EntityJsonWriter.SMILE.write(entities(), smileOut);
+        assertThat(smileOut.size(), lessThan(jsonOut.size()));
+    }
+
+    @Test
+    public void testWrite_empty() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EntityJsonWriter.JSON.write(Collections.emptyList(), out);
+
+        assertThat(out.toString("UTF-8"), is("[]"));
+    }
+}
@@ -0,0 +1,108 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.data.Entity;
+import org.grobid.core.lexicon.NERLexicon;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class EntityResultCacheTest {
+
+    EntityResultCache target;
+
+    @Before
+    public void setUp() {
+        target = new EntityResultCache(1024 * 1024);
+        target.setModelVersion("en", "/models/ner/model.wapiti@1");
+    }
+
+    private static List<Entity> entities() {
+        Entity entity = new Entity("Crédit Agricole");
+        entity.setNormalisedName("Crédit Agricole SA");
+        entity.setType(NERLexicon.NER_Type.BUSINESS);
+        entity.addSubType("bank");
+        entity.setOffsetStart(4);
+        entity.setOffsetEnd(19);
+        entity.setProb(0.7);
+        entity.setConf(0.95);
+        entity.setOrigin(Entity.Origin.USER);
+        List<Entity> entities = new ArrayList<>();
+        entities.add(entity);
+        return entities;
+    }
+
+    @Test
+    public void testGet_allFields() throws Exception {
+        target.put("en", "The Crédit Agricole bank", entities());
+
+        Entity entity = target.get("en", "The Crédit Agricole bank").get(0);
+
+        assertThat(entity.getRawName(), is("Crédit Agricole"));
+        assertThat(entity.getNormalisedName(), is("Crédit Agricole SA"));
+        assertThat(entity.getType(), is(NERLexicon.NER_Type.BUSINESS));
+        assertThat(entity.getSubTypes(), is(Collections.singletonList("bank")));
+        assertThat(entity.getOffsetStart(), is(4));
+        assertThat(entity.getOffsetEnd(), is(19));
+        assertThat(entity.getProb(), is(0.7));
+        assertThat(entity.getConf(), is(0.95));
+        assertThat(entity.getOrigin(), is(Entity.Origin.USER));
+    }
+
+    @Test
+    public void testGet_copies() throws Exception {
+        List<Entity> entities = entities();
+        target.put("en", "The Crédit Agricole bank", entities);
+        // modified by the caller after and before the cache
+        entities.get(0).addSubType("modified");
+        Entity first = target.get("en", "The Crédit Agricole bank").get(0);
+        first.addSubType("modified");
+        first.setOffsetEnd(30);
+
+        Entity second = target.get("en", "The Crédit Agricole bank").get(0);
+
+        assertThat(second.getSubTypes(), is(Collections.singletonList("bank")));
+        assertThat(second.getOffsetEnd(), is(19));
+    }
+
+    @Test
+    public void testPut_weighsTextAndEntities() throws Exception {
+        StringBuilder text = new StringBuilder("The Crédit Agricole bank");
+        while (text.length() < 10000) {
+            text.append(" and again");
+        }
+        target.put("en", text.toString(), entities());
+
+        assertThat(target.getMemory() > 2 * 10000, is(true));
+
+        // heavier than the whole cache, not kept
+        EntityResultCache small = new EntityResultCache(10000);
+        small.put("en", text.toString(), entities());
+        assertThat(small.size(), is(0));
+    }
+
+    @Test
+    public void testGet_otherTextOrLanguage() throws Exception {
+        target.put("en", "The Crédit Agricole bank", entities());
+
+        assertThat(target.get("en", "The Crédit Agricole bank."), is(nullValue()));
+        assertThat(target.get("fr", "The Crédit Agricole bank"), is(nullValue()));
+    }
+
+    @Test
+    public void testSetModelVersion_invalidates() throws Exception {
+        target.put("en", "The Crédit Agricole bank", entities());
+
+        assertThat(target.setModelVersion("en", "/models/ner/model.wapiti@1"), is(false));
+        assertThat(target.get("en", "The Crédit Agricole bank").size(), is(1));
+
+        assertThat(target.setModelVersion("en", "/models/ner/model.wapiti@2"), is(true));
+        assertThat(target.get("en", "The Crédit Agricole bank"), is(nullValue()));
+    }
+}
@@ -0,0 +1,169 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.data.Entity;
+import org.grobid.core.lang.Language;
+import org.grobid.core.layout.LayoutToken;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class EntityStreamTest {
+
+    NERParsers target;
+
+    /**
+     * Parser recognizing the sequences of capitalized words as entities.
+     */
+    static class CapitalizedWordsParser implements NERParser {
+        private static final Pattern ENTITY = Pattern.compile("[A-Z][a-z]*( [A-Z][a-z]*)*");
+
+        @Override
+        public List<Entity> extractNE(String text) {
+            List<Entity> entities = new ArrayList<>();
+            Matcher matcher = ENTITY.matcher(text);
+            while (matcher.find()) {
+                Entity entity = new Entity(matcher.group());
+                entity.setOffsetStart(matcher.start());
+                entity.setOffsetEnd(matcher.end());
+                entities.add(entity);
+            }
+            return entities;
+        }
+
+        @Override
+        public List<Entity> extractNE(List<LayoutToken> tokens) {
+            return null;
+        }
+
+        @Override
+        public String createCONNLTrainingFromText(String text) {
+            return null;
+        }
+
+        @Override
+        public String label(String text) {
+            return null;
+        }
+    }
+
+    /**
+     * Parser for which a sequence of at least six capitalized words includes the preceding
+     * word, so that the start of an entity depends on its end: cut by a window boundary, the
+     * entity does not start at the same offset as in the next window.
+     */
+    static class PrecedingWordParser extends CapitalizedWordsParser {
+        private static final Pattern LONG_ENTITY = Pattern.compile("[a-z]+ [A-Z][a-z]*( [A-Z][a-z]*){5,}");
+
+        @Override
+        public List<Entity> extractNE(String text) {
+            List<Entity> entities = new ArrayList<>();
+            for (Entity entity : super.extractNE(text)) {
+                int start = entity.getOffsetStart();
+                int previous = text.lastIndexOf(' ', start - 2) + 1;
+                if ((start > 1) && LONG_ENTITY.matcher(text.substring(previous, entity.getOffsetEnd())).matches()) {
+                    entity.setRawName(text.substring(previous, entity.getOffsetEnd()));
+                    entity.setOffsetStart(previous);
+                }
+                entities.add(entity);
+            }
+            return entities;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        HashMap<String, NERParser> parsers = new HashMap<>();
+        parsers.put("en", new CapitalizedWordsParser());
+        target = new NERParsers(parsers);
+    }
+
+    private static String longText() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            sb.append("the delegation of Alpha Beta Gamma met people from Delta ");
+            sb.append(i % 7 == 0 ? "Epsilon Zeta Eta Theta Iota Kappa" : "and").append(" in the afternoon.\n");
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testStreamNE_sameAsSingleWindow() throws Exception {
+        String text = longText();
+        List<Entity> expected = new CapitalizedWordsParser().extractNE(text);
+
+        target.setStreamingWindow(500, 50);
+        List<Entity> entities = new ArrayList<>();
+        int nb = target.extractNE(new StringReader(text), new Language("en", 1.0), entities::add);
+
+        assertThat(nb, is(expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(entities.get(i).getRawName(), is(expected.get(i).getRawName()));
+            assertThat(entities.get(i).getOffsetStart(), is(expected.get(i).getOffsetStart()));
+            assertThat(entities.get(i).getOffsetEnd(), is(expected.get(i).getOffsetEnd()));
+        }
+    }
+
+    @Test
+    public void testStreamNE_entityLongerThanOverlap() throws Exception {
+        String text = longText();
+        List<Entity> expected = new CapitalizedWordsParser().extractNE(text);
+
+        target.setStreamingWindow(200, 20);
+        List<Entity> entities = new ArrayList<>();
+        target.streamNE(new StringReader(text), new Language("en", 1.0)).forEachRemaining(entities::add);
+
+        assertThat(entities.size(), is(expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(entities.get(i).getRawName(), is(expected.get(i).getRawName()));
+            assertThat(entities.get(i).getOffsetStart(), is(expected.get(i).getOffsetStart()));
+        }
+    }
+
+    @Test
+    public void testStreamNE_entityStraddlingOverlap() throws Exception {
+        HashMap<String, NERParser> parsers = new HashMap<>();
+        parsers.put("en", new PrecedingWordParser());
+        target = new NERParsers(parsers);
+        String text = longText();
+        List<Entity> expected = new PrecedingWordParser().extractNE(text);
+
+        for (int windowSize = 200; windowSize < 300; windowSize += 5) {
+            target.setStreamingWindow(windowSize, 20);
+            List<Entity> entities = new ArrayList<>();
+            target.streamNE(new StringReader(text), new Language("en", 1.0)).forEachRemaining(entities::add);
+
+            assertThat(entities.size(), is(expected.size()));
+            for (int i = 0; i < expected.size(); i++) {
+                assertThat(entities.get(i).getRawName(), is(expected.get(i).getRawName()));
+                assertThat(entities.get(i).getOffsetStart(), is(expected.get(i).getOffsetStart()));
+                assertThat(entities.get(i).getOffsetEnd(), is(expected.get(i).getOffsetEnd()));
+            }
+        }
+    }
+
+    @Test
+    public void testStreamNE_bypassesEntityCache() throws Exception {
+        target.setEntityCache(new EntityResultCache(1024 * 1024));
+        target.setStreamingWindow(500, 50);
+        int nb = target.extractNE(new StringReader(longText()), new Language("en", 1.0), entity -> {});
+
+        assertThat(nb > 0, is(true));
+        assertThat(target.getEntityCache().size(), is(0));
+        assertThat(target.getEntityCache().getMisses(), is(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStreamNE_invalidOverlap() throws Exception {
+        target.setStreamingWindow(100, 50);
+        target.streamNE(new StringReader("text"), new Language("en", 1.0));
+    }
+}
@@ -0,0 +1,90 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.exceptions.GrobidException;
+import org.grobid.core.layout.LayoutToken;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.grobid.core.lexicon.NERLexicon.NER_Type.LOCATION;
+import static org.grobid.core.lexicon.NERLexicon.NER_Type.PERSON;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class NERLabelDecoderTest {
+
+    private static List<String> decode(String result, List<LayoutToken> tokens) {
+        int[] tokenIndexes = NERLabelDecoder.getTokenIndexes(tokens);
+        int[] labelIds = NERLabelDecoder.parseLabelIds(result, tokenIndexes.length);
+        List<String> spans = new ArrayList<>();
+        NERLabelDecoder.decode(labelIds, tokenIndexes, (type, first, last) -> spans.add(type.getName() + ":" + first + "-" + last));
+        return spans;
+    }
+
+    private static List<LayoutToken> tokens(String... texts) {
+        List<LayoutToken> tokens = new ArrayList<>();
+        for (String text : texts) {
+            tokens.add(new LayoutToken(text));
+        }
+        return tokens;
+    }
+
+    @Test
+    public void testParseLabelIds() throws Exception {
+        String result = "Austria\taustria\tB-LOCATION\n" +
+            "Hungary hungary LOCATION\r\n" +
+            "fought\tfought\tO\n" +
+            "\n";
+        int[] labelIds = NERLabelDecoder.parseLabelIds(result, 3);
+
+        assertThat(NERLabelDecoder.getType(labelIds[0]), is(LOCATION));
+        assertThat(NERLabelDecoder.isBeginning(labelIds[0]), is(true));
+        assertThat(NERLabelDecoder.getType(labelIds[1]), is(LOCATION));
+        assertThat(NERLabelDecoder.isBeginning(labelIds[1]), is(false));
+        assertThat(labelIds[2], is(NERLabelDecoder.OUTSIDE));
+    }
+
+    @Test
+    public void testGetLabelId_unknownLabel() throws Exception {
+        assertThat(NERLabelDecoder.getLabelId("B-SPACECRAFT"), is(NERLabelDecoder.OUTSIDE));
+        // logged once, then decoded the same way
+        assertThat(NERLabelDecoder.getLabelId("B-SPACECRAFT"), is(NERLabelDecoder.OUTSIDE));
+
+        List<LayoutToken> tokens = tokens("Apollo", " ", "11", " ", "Paris");
+        String result = "Apollo\tB-SPACECRAFT\n" +
+            "11\tSPACECRAFT\n" +
+            "Paris\tB-LOCATION\n";
+        assertThat(decode(result, tokens), is(Arrays.asList("LOCATION:4-4")));
+    }
+
+    @Test(expected = GrobidException.class)
+    public void testParseLabelIds_wrongNumberOfRows() throws Exception {
+        NERLabelDecoder.parseLabelIds("Austria\tB-LOCATION\nfought\tO\n", 3);
+    }
+
+    @Test
+    public void testDecode_continuationAndBeginning() throws Exception {
+        List<LayoutToken> tokens = tokens("Austria", " ", "Hungary", " ", "and", " ", "Germany", " ", "Prussia");
+        String result = "Austria\tB-LOCATION\n" +
+            "Hungary\tLOCATION\n" +
+            "and\tO\n" +
+            "Germany\tB-LOCATION\n" +
+            "Prussia\tB-LOCATION\n";
+
+        assertThat(decode(result, tokens), is(Arrays.asList("LOCATION:0-2", "LOCATION:6-6", "LOCATION:8-8")));
+    }
+
+    @Test
+    public void testDecode_typeChange() throws Exception {
+        List<LayoutToken> tokens = tokens("John", " ", "Smith", " ", "Paris", ".");
+        String result = "John\tB-PERSON\n" +
+            "Smith\tPERSON\n" +
+            "Paris\tLOCATION\n" +
+            ".\tO\n";
+
+        assertThat(decode(result, tokens), is(Arrays.asList("PERSON:0-2", "LOCATION:4-4")));
+        assertThat(NERLabelDecoder.getType(NERLabelDecoder.getLabelId("B-PERSON")), is(PERSON));
+    }
+}
@@ -3,16 +3,19 @@ package org.grobid.core.engines;
 import org.grobid.core.GrobidModels;
 import org.grobid.core.analyzers.GrobidAnalyzer;
 import org.grobid.core.data.Entity;
+import org.grobid.core.data.Sense;
 import org.grobid.core.layout.LayoutToken;
 import org.grobid.core.utilities.Pair;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.grobid.core.lexicon.NERLexicon.NER_Type.LOCATION;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.junit.Assert.assertThat;
 
@@ -78,6 +81,36 @@ public class NERParserCommonTest {
         assertThat(input.substring(entities.get(0).getOffsetStart(), entities.get(0).getOffsetEnd()), is("Austria Hungary"));
     }
 
+    private static Entity entity(int start, int end) {
+        Entity entity = new Entity();
+        entity.setOffsetStart(start);
+        entity.setOffsetEnd(end);
+        return entity;
+    }
+
+    private static Sense sense(String label, int start, int end) {
+        Sense sense = new Sense(label, label);
+        sense.setOffsetStart(start);
+        sense.setOffsetEnd(end);
+        return sense;
+    }
+
+    @Test
+    public void testMerge_linear() throws Exception {
+        List<Entity> entities = Arrays.asList(entity(0, 7), entity(8, 15), entity(32, 39), entity(45, 50));
+        List<Sense> senses = Arrays.asList(sense("country/N1", 0, 7), sense("fight/V1", 16, 22), 
+            sense("country/N1", 32, 39), sense("town/N1", 44, 50));
+
+        NERParserCommon.merge(entities, senses);
+
+        assertThat(entities.get(0).getSense().getFineSense(), is("country/N1"));
+        // no sense within the entity, the previous one is not propagated
+        assertThat(entities.get(1).getSense(), is(nullValue()));
+        assertThat(entities.get(2).getSense(), is(senses.get(2)));
+        // the sense starts before the entity
+        assertThat(entities.get(3).getSense(), is(nullValue()));
+    }
+
     /**
      * Testing the resultExtraction old method
      **/
@@ -0,0 +1,231 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.data.Entity;
+import org.grobid.core.data.EntityExtractionResult;
+import org.grobid.core.exceptions.GrobidResourceException;
+import org.grobid.core.lang.Language;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.lexicon.NERLexicon;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class NERParsersTest {
+
+    NERParsers target;
+
+    /**
+     * Parser returning one entity per text, with the text as raw name, and failing on "fail".
+     */
+    static class EchoParser implements NERParser {
+        final AtomicInteger nbCalls = new AtomicInteger();
+
+        @Override
+        public List<Entity> extractNE(String text) {
+            nbCalls.incrementAndGet();
+            if (text.equals("fail"))
+                throw new IllegalArgumentException("failure for test");
+            List<Entity> entities = new ArrayList<>();
+            Entity entity = new Entity();
+            entity.setRawName(text);
+            entity.setType(NERLexicon.NER_Type.PERSON);
+            entity.setOffsetStart(0);
+            entity.setOffsetEnd(text.length());
+            entities.add(entity);
+            return entities;
+        }
+
+        @Override
+        public List<Entity> extractNE(List<LayoutToken> tokens) {
+            return null;
+        }
+
+        @Override
+        public String createCONNLTrainingFromText(String text) {
+            return null;
+        }
+
+        @Override
+        public String label(String text) {
+            return null;
+        }
+    }
+
+    EchoParser parser;
+
+    @Before
+    public void setUp() {
+        HashMap<String, NERParser> parsers = new HashMap<>();
+        parser = new EchoParser();
+        parsers.put("en", parser);
+        target = new NERParsers(parsers);
+    }
+
+    @Test
+    public void testExtractNE_batch_inputOrderAndFailures() throws Exception {
+        List<String> texts = Arrays.asList("a", "b", "fail", "d", "e", "f", "g", "h");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<EntityExtractionResult> results = target.extractNE(texts, new Language("en", 1.0), executor);
+
+            assertThat(results.size(), is(texts.size()));
+            for (int i = 0; i < texts.size(); i++) {
+                EntityExtractionResult result = results.get(i);
+                assertThat(result.getIndex(), is(i));
+                if (i == 2) {
+                    assertThat(result.isSuccess(), is(false));
+                    assertThat(result.getError() instanceof IllegalArgumentException, is(true));
+                    assertThat(result.getEntities(), is(nullValue()));
+                } else {
+                    assertThat(result.isSuccess(), is(true));
+                    assertThat(result.getEntities().get(0).getRawName(), is(texts.get(i)));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testExtractNEAsync_defaultExecutor() throws Exception {
+        List<EntityExtractionResult> results =
+            target.extractNEAsync(Arrays.asList("x", "y"), new Language("en", 1.0), null).get();
+        target.shutdown();
+
+        assertThat(results.size(), is(2));
+        assertThat(results.get(1).getEntities().get(0).getRawName(), is("y"));
+    }
+
+    @Test
+    public void testExtractNE_batch_unsupportedLanguage() throws Exception {
+        List<EntityExtractionResult> results =
+            target.extractNE(Arrays.asList("x"), new Language("de", 1.0), Runnable::run);
+
+        assertThat(results.get(0).isSuccess(), is(false));
+    }
+
+    @Test
+    public void testExtractNE_languageHint() throws Exception {
+        AtomicInteger nbIdentifications = new AtomicInteger();
+        target.setLanguageIdentifier(new LanguageIdentifier() {
+            @Override
+            protected Language runLanguageId(String text) {
+                nbIdentifications.incrementAndGet();
+                return new Language("en", 1.0);
+            }
+        });
+
+        target.extractNE("with hint", new Language("en", 1.0));
+        assertThat(nbIdentifications.get(), is(0));
+
+        List<Entity> entities = target.extractNE("without hint");
+        assertThat(nbIdentifications.get(), is(1));
+        assertThat(entities.get(0).getRawName(), is("without hint"));
+    }
+
+    @Test
+    public void testLanguageIdentifier_cache() throws Exception {
+        AtomicInteger nbIdentifications = new AtomicInteger();
+        LanguageIdentifier languageIdentifier = new LanguageIdentifier(LanguageIdentifier.DEFAULT_MAX_LENGTH, 10) {
+            @Override
+            protected Language runLanguageId(String text) {
+                nbIdentifications.incrementAndGet();
+                return new Language("en", 1.0);
+            }
+        };
+
+        languageIdentifier.identify("The same disclaimer.", null);
+        languageIdentifier.identify("The same disclaimer.", null);
+        languageIdentifier.identify("Another paragraph.", null);
+
+        assertThat(nbIdentifications.get(), is(2));
+        assertThat(languageIdentifier.getCache().getHits(), is(1L));
+        assertThat(languageIdentifier.getCache().getMisses(), is(2L));
+    }
+
+    @Test
+    public void testExtractNE_entityCache() throws Exception {
+        target.setEntityCache(new EntityResultCache(1024 * 1024));
+        Language en = new Language("en", 1.0);
+
+        List<Entity> first = target.extractNE("Repeated headline", en);
+        first.get(0).setRawName("modified by the caller");
+        List<Entity> second = target.extractNE("Repeated headline", en);
+
+        assertThat(parser.nbCalls.get(), is(1));
+        assertThat(second.get(0).getRawName(), is("Repeated headline"));
+        assertThat(second.get(0).getType(), is(NERLexicon.NER_Type.PERSON));
+        assertThat(second.get(0).getOffsetEnd(), is(17));
+        assertThat(target.getEntityCache().getHitRatio(), is(0.5));
+
+        // model retrained
+        target.getEntityCache().setModelVersion("en", "retrained");
+        target.extractNE("Repeated headline", en);
+        assertThat(parser.nbCalls.get(), is(2));
+    }
+
+    @Test
+    public void testWarmUp_readiness() throws Exception {
+        AtomicInteger nbIdentifications = new AtomicInteger();
+        target.setLanguageIdentifier(new LanguageIdentifier() {
+            @Override
+            protected Language runLanguageId(String text) {
+                nbIdentifications.incrementAndGet();
+                return new Language("en", 1.0);
+            }
+        });
+        assertThat(target.isReady(), is(false));
+
+        target.warmUpAsync(5).get();
+
+        assertThat(target.isReady(), is(true));
+        assertThat(parser.nbCalls.get(), is(5));
+        assertThat(nbIdentifications.get(), is(1));
+
+        // only done once
+        target.warmUp();
+        assertThat(parser.nbCalls.get(), is(5));
+    }
+
+    @Test
+    public void testStart_noWarmUpConfigured() throws Exception {
+        assertThat(target.start().isDone(), is(true));
+
+        assertThat(target.isReady(), is(false));
+        assertThat(parser.nbCalls.get(), is(0));
+    }
+
+    @Test
+    public void testLanguages_lazyLoading() throws Exception {
+        NERParsers englishOnly = new NERParsers(Arrays.asList("en"));
+
+        assertThat(englishOnly.getLanguages(), is(Collections.singleton("en")));
+        assertThat(englishOnly.getLoadedLanguages().isEmpty(), is(true));
+        assertThat(englishOnly.getParser("fr"), is(nullValue()));
+    }
+
+    @Test(expected = GrobidResourceException.class)
+    public void testLanguages_unsupported() throws Exception {
+        new NERParsers(Arrays.asList("en", "xx"));
+    }
+
+    @Test
+    public void testGetLoadedLanguages() throws Exception {
+        assertThat(target.getLoadedLanguages().isEmpty(), is(true));
+        target.extractNE("Some text", new Language("en", 1.0));
+        assertThat(target.getLoadedLanguages(), is(Collections.singleton("en")));
+        assertThat(target.getParser("en"), is(parser));
+    }
+}
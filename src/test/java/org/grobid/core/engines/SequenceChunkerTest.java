@@ -0,0 +1,78 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.layout.LayoutToken;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SequenceChunkerTest {
+
+    private static List<LayoutToken> tokenize(String text) {
+        List<LayoutToken> tokens = new ArrayList<>();
+        StringTokenizer st = new StringTokenizer(text, " \n.", true);
+        int offset = 0;
+        while (st.hasMoreTokens()) {
+            LayoutToken token = new LayoutToken(st.nextToken());
+            token.setOffset(offset);
+            offset += token.getText().length();
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static String toText(List<LayoutToken> tokens) {
+        StringBuilder sb = new StringBuilder();
+        for (LayoutToken token : tokens) {
+            sb.append(token.getText());
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testSplit_sentenceBoundary() throws Exception {
+        List<LayoutToken> tokens = tokenize("a b c. d e f. g h");
+
+        List<List<LayoutToken>> chunks = new SequenceChunker(4).split(tokens);
+
+        assertThat(chunks.size(), is(3));
+        assertThat(toText(chunks.get(0)), is("a b c. "));
+        assertThat(toText(chunks.get(1)), is("d e f. "));
+        assertThat(toText(chunks.get(2)), is("g h"));
+    }
+
+    @Test
+    public void testSplit_paragraphBoundaryPreferred() throws Exception {
+        List<LayoutToken> tokens = tokenize("a b.\n\nc d. e f");
+
+        List<List<LayoutToken>> chunks = new SequenceChunker(7).split(tokens);
+
+        assertThat(chunks.size(), is(2));
+        assertThat(toText(chunks.get(0)), is("a b.\n\n"));
+        assertThat(toText(chunks.get(1)), is("c d. e f"));
+    }
+
+    @Test
+    public void testSplit_noBoundary() throws Exception {
+        List<LayoutToken> tokens = tokenize("a b c d e");
+
+        List<List<LayoutToken>> chunks = new SequenceChunker(2).split(tokens);
+
+        assertThat(chunks.size(), is(3));
+        assertThat(toText(chunks.get(0)), is("a b "));
+        assertThat(toText(chunks.get(2)), is("e"));
+        // chunks are views on the original tokens
+        assertThat(chunks.get(2).get(0) == tokens.get(8), is(true));
+    }
+
+    @Test
+    public void testSplit_shortSequence() throws Exception {
+        List<LayoutToken> tokens = tokenize("a b c");
+
+        assertThat(new SequenceChunker(10).split(tokens).size(), is(1));
+    }
+}
@@ -0,0 +1,73 @@
+package org.grobid.core.engines.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class NERMetricsRegistryTest {
+
+    NERMetricsRegistry target;
+
+    @Before
+    public void setUp() {
+        target = new NERMetricsRegistry();
+    }
+
+    @Test
+    public void testRecordSequence_throughput() throws Exception {
+        target.recordSequence("ner", 1000, 10, 500_000_000L);
+        target.recordSequence("ner", 1000, 30, 500_000_000L);
+
+        NERMetricsRegistry.ModelMetrics metrics = target.getModelMetrics("ner");
+        assertThat(metrics.getSequences().getCount(), is(2L));
+        assertThat(metrics.getNbTokens(), is(2000L));
+        assertThat(metrics.getNbEntities(), is(40L));
+        assertThat(metrics.getTokensPerSecond(), closeTo(2000.0, 0.001));
+        assertThat(metrics.getEntitiesPerSecond(), closeTo(40.0, 0.001));
+        assertThat(target.getModelMetrics("nerfr"), is(nullValue()));
+    }
+
+    @Test
+    public void testRecordStage_percentiles() throws Exception {
+        for (int i = 1; i <= 100; i++) {
+            target.recordStage("ner", NERMetrics.Stage.LABELLING, i * 1000L);
+        }
+
+        LatencyHistogram histogram = target.getModelMetrics("ner").getStage(NERMetrics.Stage.LABELLING);
+        assertThat(histogram.getCount(), is(100L));
+        assertThat(histogram.getMaxNanos(), is(100_000L));
+        assertThat(histogram.getMeanNanos(), closeTo(50_500.0, 0.001));
+        // bucket upper bounds, at most twice the exact value
+        assertThat(histogram.getPercentileNanos(50), greaterThanOrEqualTo(50_000L));
+        assertThat(histogram.getPercentileNanos(50), lessThan(100_000L));
+        assertThat(histogram.getPercentileNanos(100), greaterThanOrEqualTo(100_000L));
+        assertThat(target.getModelMetrics("ner").getStage(NERMetrics.Stage.FEATURES).getCount(), is(0L));
+    }
+
+    @Test
+    public void testNoop() throws Exception {
+        assertThat(NERMetrics.NOOP.isEnabled(), is(false));
+        assertThat(target.isEnabled(), is(true));
+    }
+
+    @Test
+    public void testRunUnrecorded() throws Exception {
+        target.recordSequence("ner", 100, 1, 1000L);
+
+        target.runUnrecorded(() -> {
+            assertThat(target.isEnabled(), is(false));
+            target.recordSequence("ner", 100, 1, 1000L);
+            target.recordStage("nerfr", NERMetrics.Stage.LABELLING, 1000L);
+        });
+
+        assertThat(target.isEnabled(), is(true));
+        assertThat(target.getModelMetrics("ner").getNbTokens(), is(100L));
+        assertThat(target.getModelMetrics("nerfr"), is(nullValue()));
+    }
+}
@@ -0,0 +1,42 @@
+package org.grobid.core.features;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class FeaturesVectorNERSenseTest {
+
+    @Test
+    public void testPrintVector_streaming() throws Exception {
+        FeaturesVectorNERSense vector = new FeaturesVectorNERSense();
+        vector.string = "IBM";
+        vector.capitalisation = "ALLCAPS";
+        vector.digit = "NODIGIT";
+        vector.firstName = true;
+        vector.isOrgFormToken = true;
+        vector.wordShape = "XXX";
+        vector.wordShapeTrimmed = "X";
+        vector.isNER = true;
+        vector.nerType = "ORGANISATION";
+        vector.label = "<sense>";
+
+        String expected = "IBM ibm I IB IBM IBM IBM M BM IBM IBM IBM ALLCAPS NODIGIT 0 0 1 0 0 0 0 0 0 0 1 XXX X 1 ORGANISATION <sense>";
+        assertThat(vector.printVector(), is(expected));
+
+        StringBuilder sb = new StringBuilder("prefix ");
+        assertThat(vector.printVector(sb), is(true));
+        assertThat(sb.toString(), is("prefix " + expected));
+    }
+
+    @Test
+    public void testPrintVector_empty() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        FeaturesVectorNERSense vector = new FeaturesVectorNERSense();
+
+        assertThat(vector.printVector(), is(nullValue()));
+        assertThat(vector.printVector(sb), is(false));
+        assertThat(sb.length(), is(0));
+    }
+}
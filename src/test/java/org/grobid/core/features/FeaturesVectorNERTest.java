@@ -0,0 +1,52 @@
+package org.grobid.core.features;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FeaturesVectorNERTest {
+
+    private static FeaturesVectorNER vector(String string, String capitalisation, String digit, String label) {
+        FeaturesVectorNER vector = new FeaturesVectorNER();
+        vector.string = string;
+        vector.capitalisation = capitalisation;
+        vector.digit = digit;
+        vector.label = label;
+        vector.firstName = true;
+        vector.isOrgFormToken = true;
+        vector.wordShape = "Xx";
+        vector.wordShapeTrimmed = "Xx";
+        return vector;
+    }
+
+    private static void assertStreamingIdentical(FeaturesVectorNER vector) {
+        StringBuilder sb = new StringBuilder("prefix ");
+        assertThat(vector.printVector(sb), is(true));
+        assertThat(sb.toString(), is("prefix " + vector.printVector()));
+    }
+
+    @Test
+    public void testPrintVectorStreaming_ascii() throws Exception {
+        assertStreamingIdentical(vector("Austria", "INITCAP", "NODIGIT", null));
+        assertStreamingIdentical(vector("IBM", "ALLCAPS", "NODIGIT", "B-ORGANISATION"));
+        assertStreamingIdentical(vector("1996", "NOCAPS", "ALLDIGIT", null));
+        assertStreamingIdentical(vector(".", "NOCAPS", "NODIGIT", "O"));
+    }
+
+    @Test
+    public void testPrintVectorStreaming_nonAscii() throws Exception {
+        assertStreamingIdentical(vector("Österreich", "INITCAP", "NODIGIT", null));
+        assertStreamingIdentical(vector("İSTANBUL", "ALLCAPS", "NODIGIT", null));
+        assertStreamingIdentical(vector("Ⅻ", "NOCAPS", "NODIGIT", null));
+    }
+
+    @Test
+    public void testPrintVectorStreaming_empty() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        FeaturesVectorNER vector = new FeaturesVectorNER();
+
+        assertThat(vector.printVector(sb), is(false));
+        assertThat(sb.length(), is(0));
+    }
+}
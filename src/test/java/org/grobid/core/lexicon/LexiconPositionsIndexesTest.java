@@ -0,0 +1,70 @@
+package org.grobid.core.lexicon;
+
+import org.grobid.core.utilities.OffsetPosition;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LexiconPositionsIndexesTest {
+
+    LexiconPositionsIndexes target;
+
+    @Before
+    public void setUp() {
+        target = new LexiconPositionsIndexes(null);
+        target.setLocalLocationPositions(Arrays.asList(new OffsetPosition(0, 0), new OffsetPosition(5, 7)));
+        target.setLocalPersonTitlePositions(Arrays.asList(new OffsetPosition(3, 3)));
+        target.setLocalOrganisationPositions(Arrays.asList(new OffsetPosition(6, 9)));
+        target.setLocalOrgFormPositions(Arrays.asList(new OffsetPosition(9, 9)));
+    }
+
+    @Test
+    public void testLexiconFlags_sameAsListScan() throws Exception {
+        for (int position = 0; position < 12; position++) {
+            assertThat(target.isLocationToken(position),
+                is(LexiconPositionsIndexes.isTokenInLexicon(target.getLocalLocationPositions(), position)));
+            assertThat(target.isPersonTitleToken(position),
+                is(LexiconPositionsIndexes.isTokenInLexicon(target.getLocalPersonTitlePositions(), position)));
+            assertThat(target.isOrganisationToken(position),
+                is(LexiconPositionsIndexes.isTokenInLexicon(target.getLocalOrganisationPositions(), position)));
+            assertThat(target.isOrgFormToken(position),
+                is(LexiconPositionsIndexes.isTokenInLexicon(target.getLocalOrgFormPositions(), position)));
+        }
+    }
+
+    @Test
+    public void testLexiconFlags_combined() throws Exception {
+        assertThat(target.getLexiconFlags(6), is(LexiconPositionsIndexes.LOCATION | LexiconPositionsIndexes.ORGANISATION));
+        assertThat(target.getLexiconFlags(4), is(0));
+        assertThat(target.getLexiconFlags(-1), is(0));
+        assertThat(target.getLexiconFlags(100), is(0));
+    }
+
+    @Test
+    public void testLexiconFlags_updatedBySetter() throws Exception {
+        assertThat(target.isLocationToken(1), is(false));
+        target.setLocalLocationPositions(Arrays.asList(new OffsetPosition(1, 2)));
+
+        assertThat(target.isLocationToken(1), is(true));
+        assertThat(target.isLocationToken(5), is(false));
+    }
+
+    @Test
+    public void testFromPositions_sameFlags() throws Exception {
+        LexiconPositionsIndexes indexes = LexiconPositionsIndexes.fromPositions(
+            target.getLocalLocationPositions(), target.getLocalPersonTitlePositions(),
+            target.getLocalOrganisationPositions(), null);
+
+        for (int position = 0; position < 12; position++) {
+            assertThat(indexes.getLexiconFlags(position),
+                is(target.getLexiconFlags(position) & ~LexiconPositionsIndexes.ORG_FORM));
+        }
+        // the organisation flag is kept on the organisation form position
+        assertThat(indexes.isOrganisationToken(9), is(true));
+        assertThat(indexes.isOrgFormToken(9), is(false));
+    }
+}
@@ -0,0 +1,61 @@
+package org.grobid.core.lexicon;
+
+import org.apache.commons.io.IOUtils;
+import org.grobid.core.EngineMockTest;
+import org.grobid.core.analyzers.GrobidAnalyzer;
+import org.grobid.core.lang.Language;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.GrobidNerConfiguration;
+import org.grobid.core.utilities.OffsetPosition;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * The combined matcher built from the configured gazetteers gives the same positions and
+ * lexicon flags as the scans of the grobid Lexicon. Requires grobid-home.
+ */
+public class MultiLexiconMatcherLexiconTest extends EngineMockTest {
+
+    Lexicon lexicon;
+    MultiLexiconMatcher target;
+
+    @Before
+    public void setUp() throws Exception {
+        lexicon = Lexicon.getInstance();
+        target = MultiLexiconMatcher.getInstance(GrobidNerConfiguration.getInstance(null).getLexicons());
+    }
+
+    @Test
+    public void testComputeIndexes_sameAsLexicon() throws Exception {
+        String text = IOUtils.toString(this.getClass().getResourceAsStream("/test.en.txt"), "UTF-8");
+        List<LayoutToken> tokens = GrobidAnalyzer.getInstance()
+            .tokenizeWithLayoutToken(text, new Language(Language.EN, 1.0));
+
+        LexiconPositionsIndexes expected = new LexiconPositionsIndexes(lexicon);
+        expected.computeIndexes(tokens);
+        LexiconPositionsIndexes actual = new LexiconPositionsIndexes(lexicon, target);
+        actual.computeIndexes(tokens);
+
+        assertSamePositions(actual.getLocalLocationPositions(), lexicon.tokenPositionsLocationNames(tokens));
+        assertSamePositions(actual.getLocalPersonTitlePositions(), lexicon.tokenPositionsPersonTitle(tokens));
+        assertSamePositions(actual.getLocalOrganisationPositions(), lexicon.tokenPositionsOrganisationNames(tokens));
+        assertSamePositions(actual.getLocalOrgFormPositions(), lexicon.tokenPositionsOrgForm(tokens));
+        for (int position = 0; position < tokens.size(); position++) {
+            assertThat("lexicon flags at " + position, actual.getLexiconFlags(position), 
+                is(expected.getLexiconFlags(position)));
+        }
+    }
+
+    private static void assertSamePositions(List<OffsetPosition> actual, List<OffsetPosition> expected) {
+        assertThat(actual.size(), is(expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i).start, is(expected.get(i).start));
+            assertThat(actual.get(i).end, is(expected.get(i).end));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.grobid.core.lexicon;
+
+import org.grobid.core.layout.LayoutToken;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class MultiLexiconMatcherTest {
+
+    MultiLexiconMatcher target;
+
+    @Before
+    public void setUp() {
+        target = new MultiLexiconMatcher();
+        target.addTerm(Arrays.asList("New", " ", "York"), LexiconPositionsIndexes.LOCATION);
+        target.addTerm(Arrays.asList("York"), LexiconPositionsIndexes.LOCATION);
+        target.addTerm(Arrays.asList("New", " ", "York", " ", "Times"), LexiconPositionsIndexes.ORGANISATION);
+        target.addTerm(Arrays.asList("Mr"), LexiconPositionsIndexes.PERSON_TITLE);
+        target.addTerm(Arrays.asList("Inc"), LexiconPositionsIndexes.ORG_FORM);
+        target.compile();
+    }
+
+    private static List<LayoutToken> tokens(String... texts) {
+        List<LayoutToken> tokens = new ArrayList<>();
+        for (String text : texts) {
+            tokens.add(new LayoutToken(text));
+        }
+        return tokens;
+    }
+
+    @Test
+    public void testComputeIndexes() throws Exception {
+        // positions skip the whitespace tokens: mr=0 visited=1 the=2 new=3 york=4 times=5 inc=6
+        List<LayoutToken> tokens = tokens("Mr", " ", "visited", " ", "the", " ", "new", " ", "York", " ",
+            "Times", " ", "Inc");
+        LexiconPositionsIndexes indexes = new LexiconPositionsIndexes(null, target);
+        indexes.computeIndexes(tokens);
+
+        assertThat(indexes.getLexiconFlags(0), is(LexiconPositionsIndexes.PERSON_TITLE));
+        assertThat(indexes.getLexiconFlags(1), is(0));
+        assertThat(indexes.getLexiconFlags(3),
+            is(LexiconPositionsIndexes.LOCATION | LexiconPositionsIndexes.ORGANISATION));
+        assertThat(indexes.getLexiconFlags(4),
+            is(LexiconPositionsIndexes.LOCATION | LexiconPositionsIndexes.ORGANISATION));
+        assertThat(indexes.getLexiconFlags(5), is(LexiconPositionsIndexes.ORGANISATION));
+        assertThat(indexes.getLexiconFlags(6), is(LexiconPositionsIndexes.ORG_FORM));
+
+        // longest match only for "new York", "York" being overlapped
+        assertThat(indexes.getLocalLocationPositions().size(), is(1));
+        assertThat(indexes.getLocalLocationPositions().get(0).start, is(3));
+        assertThat(indexes.getLocalLocationPositions().get(0).end, is(4));
+        assertThat(indexes.getLocalOrganisationPositions().get(0).start, is(3));
+        assertThat(indexes.getLocalOrganisationPositions().get(0).end, is(5));
+    }
+
+    @Test
+    public void testComputeIndexes_failureTransition() throws Exception {
+        // "new new York": the first "new" does not start a match
+        List<LayoutToken> tokens = tokens("new", " ", "new", " ", "York", " ", "York");
+        LexiconPositionsIndexes indexes = new LexiconPositionsIndexes(null, target);
+        indexes.computeIndexes(tokens);
+
+        assertThat(indexes.getLexiconFlags(0), is(0));
+        assertThat(indexes.isLocationToken(1), is(true));
+        assertThat(indexes.isLocationToken(2), is(true));
+        assertThat(indexes.isLocationToken(3), is(true));
+        assertThat(indexes.getLocalLocationPositions().size(), is(2));
+        assertThat(indexes.getLocalLocationPositions().get(1).start, is(3));
+    }
+
+    @Test
+    public void testComputeIndexes_overlappedMatchNotFlagged() throws Exception {
+        MultiLexiconMatcher matcher = new MultiLexiconMatcher();
+        matcher.addTerm(Arrays.asList("New", " ", "York"), LexiconPositionsIndexes.LOCATION);
+        matcher.addTerm(Arrays.asList("York", " ", "Harbour"), LexiconPositionsIndexes.LOCATION);
+        matcher.compile();
+
+        // "York Harbour" is overlapped by "New York", kept as the leftmost-longest match
+        List<LayoutToken> tokens = tokens("New", " ", "York", " ", "Harbour");
+        LexiconPositionsIndexes indexes = new LexiconPositionsIndexes(null, matcher);
+        indexes.computeIndexes(tokens);
+
+        assertThat(indexes.getLocalLocationPositions().size(), is(1));
+        assertThat(indexes.isLocationToken(0), is(true));
+        assertThat(indexes.isLocationToken(1), is(true));
+        assertThat(indexes.isLocationToken(2), is(false));
+    }
+
+    @Test
+    public void testComputeIndexes_flagsSameAsPositions() throws Exception {
+        List<LayoutToken> tokens = tokens("Mr", " ", "York", " ", "of", " ", "the", " ", "new", " ", "York", 
+            " ", "Times", " ", "Inc", " ", "in", " ", "New", " ", "York");
+        LexiconPositionsIndexes indexes = new LexiconPositionsIndexes(null, target);
+        indexes.computeIndexes(tokens);
+
+        for (int position = 0; position < 12; position++) {
+            assertThat(indexes.isLocationToken(position),
+                is(LexiconPositionsIndexes.isTokenInLexicon(indexes.getLocalLocationPositions(), position)));
+            assertThat(indexes.isPersonTitleToken(position),
+                is(LexiconPositionsIndexes.isTokenInLexicon(indexes.getLocalPersonTitlePositions(), position)));
+            assertThat(indexes.isOrganisationToken(position),
+                is(LexiconPositionsIndexes.isTokenInLexicon(indexes.getLocalOrganisationPositions(), position)));
+            assertThat(indexes.isOrgFormToken(position),
+                is(LexiconPositionsIndexes.isTokenInLexicon(indexes.getLocalOrgFormPositions(), position)));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAddTerm_compiled() throws Exception {
+        target.addTerm(Arrays.asList("Paris"), LexiconPositionsIndexes.LOCATION);
+    }
+}
@@ -0,0 +1,41 @@
+package org.grobid.core.lexicon;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class NERLexiconTest {
+
+    @Test
+    public void testMapIdilia() throws Exception {
+        assertThat(NERLexicon.NER_Type.mapIdilia("person/N1"), is(NERLexicon.NER_Type.PERSON));
+        assertThat(NERLexicon.NER_Type.mapIdilia("organizational_unit/N1"), is(NERLexicon.NER_Type.ORGANISATION));
+        assertThat(NERLexicon.NER_Type.mapIdilia("athletic_team/N1"), is(NERLexicon.NER_Type.SPORT_TEAM));
+        assertThat(NERLexicon.NER_Type.mapIdilia("NETYPE_UNKNOWN/N1"), is(NERLexicon.NER_Type.UNKNOWN));
+        assertThat(NERLexicon.NER_Type.mapIdilia("person/N2"), is(NERLexicon.NER_Type.UNKNOWN));
+    }
+
+    @Test
+    public void testMapIdilia_allTypes() throws Exception {
+        for (NERLexicon.NER_Type type : NERLexicon.NER_Type.values()) {
+            if (type.getIdiliaType() != null)
+                assertThat(NERLexicon.NER_Type.mapIdilia(type.getIdiliaType()), is(type));
+        }
+    }
+
+    @Test
+    public void testFromLabel() throws Exception {
+        for (NERLexicon.NER_Type type : NERLexicon.NER_Type.values()) {
+            assertThat(NERLexicon.NER_Type.fromLabel(type.getName()), is(type));
+            assertThat(NERLexicon.NER_Type.fromLabel("B-" + type.getName()), is(type));
+            assertThat(NERLexicon.NER_Type.fromLabel("I-" + type.getName()), is(type));
+            assertThat(NERLexicon.NER_Type.fromLabel(type.getName().toLowerCase()), is(type));
+        }
+        assertThat(NERLexicon.NER_Type.fromLabel("B-ATHLETIC_TEAM"), is(NERLexicon.NER_Type.SPORT_TEAM));
+        assertThat(NERLexicon.NER_Type.fromLabel("Person"), is(NERLexicon.NER_Type.PERSON));
+        assertThat(NERLexicon.NER_Type.fromLabel("O"), is(nullValue()));
+        assertThat(NERLexicon.NER_Type.fromLabel("<other>"), is(nullValue()));
+    }
+}
@@ -0,0 +1,100 @@
+package org.grobid.core.lexicon;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class SenseDescriptionsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File writeText() throws Exception {
+        File file = folder.newFile("descriptions.txt");
+        Files.write(file.toPath(), Arrays.asList(
+            "# word sense descriptions",
+            "person/n1\ta human being",
+            "",
+            "bank/n2\tsloping land beside a body of water",
+            "bank/n1\ta financial institution, e.g. Crédit Agricole",
+            "invalid line"), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    public void testReadText() throws Exception {
+        SenseDescriptions descriptions = SenseDescriptions.readText(writeText());
+
+        assertThat(descriptions.size(), is(3));
+        // ids follow the label order
+        assertThat(descriptions.getId("bank/n1"), is(0));
+        assertThat(descriptions.getId("bank/n2"), is(1));
+        assertThat(descriptions.getId("person/n1"), is(2));
+        assertThat(descriptions.getId("invalid line"), is(SenseDescriptions.UNKNOWN));
+        assertThat(descriptions.getLabel(2), is("person/n1"));
+        assertThat(descriptions.getDescription(2), is("a human being"));
+        assertThat(descriptions.getDescription("unknown/n1"), is(nullValue()));
+    }
+
+    @Test
+    public void testMapIndex_sameAsText() throws Exception {
+        SenseDescriptions fromText = SenseDescriptions.readText(writeText());
+        File index = folder.newFile("descriptions.idx");
+        fromText.writeIndex(index);
+
+        SenseDescriptions mapped = SenseDescriptions.mapIndex(index);
+
+        assertThat(mapped.size(), is(fromText.size()));
+        for (int id = 0; id < fromText.size(); id++) {
+            String label = fromText.getLabel(id);
+            assertThat(mapped.getLabel(id), is(label));
+            assertThat(mapped.getId(label), is(id));
+            assertThat(mapped.getDescription(id), is(fromText.getDescription(id)));
+        }
+        assertThat(mapped.getDescription("bank/n1"), is("a financial institution, e.g. Crédit Agricole"));
+        assertThat(mapped.getId("unknown/n1"), is(SenseDescriptions.UNKNOWN));
+    }
+
+    @Test
+    public void testMapIndex_nonAsciiLabels() throws Exception {
+        Map<String, String> entries = new HashMap<>();
+        entries.put("zebra/n1", "an African equine");
+        entries.put("zèbre/n1", "un équidé d'Afrique");
+        entries.put("\uE000/n1", "private use character");
+        entries.put("\uD835\uDD38/n1", "mathematical double-struck A");
+        entries.put("a/n1", "the first letter");
+        SenseDescriptions fromText = SenseDescriptions.of(entries);
+        File index = folder.newFile("descriptions.idx");
+        fromText.writeIndex(index);
+
+        SenseDescriptions mapped = SenseDescriptions.mapIndex(index);
+
+        // code point order, the private use character before the supplementary one
+        assertThat(fromText.getId("\uE000/n1") < fromText.getId("\uD835\uDD38/n1"), is(true));
+        for (String label : entries.keySet()) {
+            assertThat(mapped.getId(label), is(fromText.getId(label)));
+            assertThat(mapped.getDescription(label), is(entries.get(label)));
+        }
+        assertThat(mapped.getId("zèbre/n2"), is(SenseDescriptions.UNKNOWN));
+        assertThat(mapped.getId(""), is(SenseDescriptions.UNKNOWN));
+    }
+
+    @Test
+    public void testMapIndex_empty() throws Exception {
+        File index = folder.newFile("empty.idx");
+        SenseDescriptions.readText(folder.newFile("empty.txt")).writeIndex(index);
+
+        assertThat(SenseDescriptions.mapIndex(index).size(), is(0));
+    }
+}
@@ -0,0 +1,51 @@
+package org.grobid.core.utilities;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class LRUCacheTest {
+
+    @Test
+    public void testPut_evictsLeastRecentlyUsed() throws Exception {
+        LRUCache<Long, String> target = new LRUCache<>(2);
+        target.put(1L, "a");
+        target.put(2L, "b");
+        target.get(1L);
+        target.put(3L, "c");
+
+        assertThat(target.size(), is(2));
+        assertThat(target.get(2L), is(nullValue()));
+        assertThat(target.get(1L), is("a"));
+        assertThat(target.get(3L), is("c"));
+        assertThat(target.getHits(), is(3L));
+        assertThat(target.getMisses(), is(1L));
+        assertThat(target.getEvictions(), is(1L));
+    }
+
+    @Test
+    public void testPut_weigher() throws Exception {
+        LRUCache<Long, String> target = new LRUCache<>(10, String::length);
+        target.put(1L, "aaaa");
+        target.put(2L, "bbbb");
+        target.put(3L, "cccc");
+        assertThat(target.size(), is(2));
+        assertThat(target.getWeight(), is(8L));
+
+        // too heavy to be cached
+        target.put(4L, "ddddddddddd");
+        assertThat(target.get(4L), is(nullValue()));
+        assertThat(target.getWeight(), is(8L));
+
+        target.put(2L, "b");
+        assertThat(target.getWeight(), is(5L));
+    }
+
+    @Test
+    public void testFingerprint_truncated() throws Exception {
+        assertThat(TextFingerprint.of("abcdef", 3), is(TextFingerprint.of("abcxyz", 3)));
+        assertThat(TextFingerprint.of("abcdef") == TextFingerprint.of("abcxyz"), is(false));
+    }
+}